@@ -0,0 +1,26 @@
+#!/bin/sh
+# Starts the exploded fast-start build (mvn -P fast-start package) with the AOT-generated context and the
+# class-data-sharing archive. --train refreshes the context once and writes the archive instead.
+# Usage: src/fast-start/run.sh target/fast-start [--train] [application arguments]
+set -e
+
+cd "$1"
+shift
+JAVA="${JAVA:-java}"
+
+# CDS rejects the archive unless the class path matches the training run, so build it the same way every time
+CLASSPATH=$(ls WEB-INF/lib/*.jar WEB-INF/lib-provided/*.jar | LC_ALL=C sort | paste -sd: -)
+export CLASSPATH
+
+if [ "$1" = "--train" ]; then
+    shift
+    # The training run only refreshes the context, but that still needs a remember-me key
+    APP_SECURITY_REMEMBER_ME_KEY="${APP_SECURITY_REMEMBER_ME_KEY:-$(head -c 32 /dev/urandom | base64)}"
+    export APP_SECURITY_REMEMBER_ME_KEY
+    exec "$JAVA" -XX:ArchiveClassesAtExit=application.jsa -Dspring.aot.enabled=true \
+        -Dspring.context.exit=onRefresh -Dlogging.file.name= \
+        com.example.security.SecurityApplication "$@"
+fi
+
+exec "$JAVA" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+    com.example.security.SecurityApplication "$@"
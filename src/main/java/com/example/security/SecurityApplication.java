@@ -1,9 +1,16 @@
 package com.example.security;
 
+import com.example.security.config.ApplicationRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive edge (ReactiveEdgeApplication); the servlet app stays on JPA
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
+@ImportRuntimeHints(ApplicationRuntimeHints.class)
 public class SecurityApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,266 @@
+package com.example.security.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Request threads only stamp an event and offer it to a bounded ring; when the ring is full the event is dropped and
+// counted rather than making the request wait. A single writer thread drains the ring, inserts each batch into
+// audit_events and then, in a separate transaction, adds it to the per-minute counts in audit_rollups, so a
+// rollup conflict with another node can never cost the event rows.
+@Component
+public class AuditEventPublisher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditEventPublisher.class);
+    private static final String INSERT_EVENT_SQL =
+        "INSERT INTO audit_events (occurred_at, type, principal, remote_address, detail) VALUES (?, ?, ?, ?, ?)";
+    private static final String INCREMENT_ROLLUP_SQL =
+        "UPDATE audit_rollups SET event_count = event_count + ? WHERE minute_start = ? AND type = ?";
+    private static final String INSERT_ROLLUP_SQL =
+        "INSERT INTO audit_rollups (minute_start, type, event_count) VALUES (?, ?, ?)";
+    private static final int MAX_PRINCIPAL_LENGTH = 100;
+    private static final int MAX_REMOTE_ADDRESS_LENGTH = 45;
+    private static final int MAX_DETAIL_LENGTH = 255;
+    private static final int MAX_ROLLUP_ATTEMPTS = 3;
+
+    private final MpscRingBuffer<Entry> buffer;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int flushThreshold;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Counter droppedFull;
+    private final Counter droppedWriteFailed;
+    private final DistributionSummary batchSizes;
+    private final Counter rollupFailures;
+    // Cleared for good the first time the driver answers a batch with SUCCESS_NO_INFO; only the writer thread reads it
+    private boolean batchCountsKnown = true;
+
+    public AuditEventPublisher(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.audit.enabled:true}") boolean enabled,
+                               @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+                               @Value("${app.audit.batch-size:500}") int batchSize,
+                               @Value("${app.audit.flush-interval:1s}") Duration flushInterval,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        // Wake the writer early once half the ring is used, so a burst is written before it overflows
+        this.flushThreshold = buffer.capacity() / 2;
+
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("audit-writer-", 1).factory()
+            : new CustomizableThreadFactory("audit-writer-");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+
+        Gauge.builder("audit.buffer.size", buffer, MpscRingBuffer::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+        this.droppedFull = Counter.builder("audit.events.dropped")
+            .description("Audit events discarded instead of written")
+            .tag("reason", "buffer_full")
+            .register(meterRegistry);
+        this.droppedWriteFailed = Counter.builder("audit.events.dropped")
+            .description("Audit events discarded instead of written")
+            .tag("reason", "write_failed")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.flush.size")
+            .description("Audit events written per batch")
+            .register(meterRegistry);
+        this.rollupFailures = Counter.builder("audit.rollups.failed")
+            .description("Written audit events that could not be added to the per-minute counts")
+            .register(meterRegistry);
+    }
+
+    public void publish(AuditEventType type, String principal, String remoteAddress, String detail) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = new Entry(System.currentTimeMillis(), type, truncate(principal, MAX_PRINCIPAL_LENGTH),
+            truncate(remoteAddress, MAX_REMOTE_ADDRESS_LENGTH), truncate(detail, MAX_DETAIL_LENGTH));
+        if (!buffer.offer(entry)) {
+            droppedFull.increment();
+            return;
+        }
+        if (buffer.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; destroy() drains whatever is left
+            }
+        }
+    }
+
+    // Runs on the writer thread only, which is what makes the ring single-consumer. Nothing may escape: an exception
+    // would cancel the fixed-delay task and silently stop the writer for good.
+    void flush() {
+        flushRequested.set(false);
+        try {
+            List<Entry> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                boolean written = write(batch);
+                batch.clear();
+                if (!written) {
+                    // Leave the rest in the ring for the next run rather than failing every batch in turn
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Audit flush failed", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        logger.info("Audit events drained on shutdown");
+    }
+
+    private boolean write(List<Entry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, batch, batch.size(), (ps, entry) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(entry.occurredAt(zone)));
+                    ps.setString(2, entry.type().name());
+                    ps.setString(3, entry.principal());
+                    ps.setString(4, entry.remoteAddress());
+                    ps.setString(5, entry.detail());
+                }));
+        } catch (RuntimeException e) {
+            // Includes CannotCreateTransactionException, which is not a DataAccessException
+            droppedWriteFailed.increment(batch.size());
+            logger.error("Failed to write {} audit events, dropping them: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        batchSizes.record(batch.size());
+
+        Map<RollupKey, Integer> rollups = new LinkedHashMap<>();
+        for (Entry entry : batch) {
+            rollups.merge(new RollupKey(entry.occurredAt(zone).truncatedTo(ChronoUnit.MINUTES), entry.type()), 1,
+                Integer::sum);
+        }
+        try {
+            incrementRollups(rollups);
+        } catch (RuntimeException e) {
+            rollupFailures.increment(batch.size());
+            logger.error("Failed to add {} audit events to the per-minute counts: {}", batch.size(), e.getMessage());
+        }
+        return true;
+    }
+
+    // Other nodes write the same minutes, so two writers can both miss on the update and both insert. The loser's
+    // transaction rolls back whole, and on the retry its update matches the row the winner inserted.
+    private void incrementRollups(Map<RollupKey, Integer> rollups) {
+        List<Map.Entry<RollupKey, Integer>> counts = new ArrayList<>(rollups.entrySet());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> upsertRollups(counts, status)))) {
+                    // The batch was rolled back because its counts were hidden; repeat it one row at a time
+                    transactionTemplate.execute(status -> upsertRollups(counts, status));
+                }
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_ROLLUP_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // A row counts as missing only when the driver reports 0 updated. A batch answered with SUCCESS_NO_INFO cannot tell
+    // an incremented row from a missing one, so it is rolled back and false returned for a row-by-row retry.
+    private boolean upsertRollups(List<Map.Entry<RollupKey, Integer>> counts, TransactionStatus status) {
+        List<Map.Entry<RollupKey, Integer>> missing = new ArrayList<>();
+        if (batchCountsKnown) {
+            int[][] updated = jdbcTemplate.batchUpdate(INCREMENT_ROLLUP_SQL, counts, counts.size(), (ps, count) -> {
+                ps.setInt(1, count.getValue());
+                ps.setTimestamp(2, Timestamp.valueOf(count.getKey().minute()));
+                ps.setString(3, count.getKey().type().name());
+            });
+            for (int i = 0; i < counts.size(); i++) {
+                if (updated[0][i] < 0) {
+                    batchCountsKnown = false;
+                    status.setRollbackOnly();
+                    logger.info("JDBC driver does not report batch update counts; audit rollups are updated row by row");
+                    return false;
+                }
+                if (updated[0][i] == 0) {
+                    missing.add(counts.get(i));
+                }
+            }
+        } else {
+            for (Map.Entry<RollupKey, Integer> count : counts) {
+                if (jdbcTemplate.update(INCREMENT_ROLLUP_SQL, count.getValue(),
+                        Timestamp.valueOf(count.getKey().minute()), count.getKey().type().name()) == 0) {
+                    missing.add(count);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUP_SQL, missing, missing.size(), (ps, count) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(count.getKey().minute()));
+                ps.setString(2, count.getKey().type().name());
+                ps.setInt(3, count.getValue());
+            });
+        }
+        return true;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private record Entry(long epochMillis, AuditEventType type, String principal, String remoteAddress,
+                         String detail) {
+
+        LocalDateTime occurredAt(ZoneId zone) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+        }
+    }
+
+    private record RollupKey(LocalDateTime minute, AuditEventType type) {}
+}
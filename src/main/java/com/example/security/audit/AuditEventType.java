@@ -0,0 +1,16 @@
+package com.example.security.audit;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    LOGOUT,
+    ACCESS_DENIED,
+    ACCOUNT_LOCKED,
+    ACCOUNT_UNLOCKED,
+    ACCOUNT_ENABLED,
+    ACCOUNT_DISABLED,
+    USER_REGISTERED,
+    PASSWORD_CHANGED,
+    ROLE_GRANTED,
+    ROLE_REVOKED
+}
@@ -0,0 +1,44 @@
+package com.example.security.audit;
+
+import com.example.security.dto.AuditEventSummary;
+import com.example.security.dto.AuditEventWindow;
+import com.example.security.dto.AuditRollupSummary;
+import com.example.security.repository.AuditEventRepository;
+import com.example.security.repository.AuditRollupRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class AuditQueryService {
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuditRollupRepository auditRollupRepository;
+
+    public AuditQueryService(AuditEventRepository auditEventRepository,
+                             AuditRollupRepository auditRollupRepository) {
+        this.auditEventRepository = auditEventRepository;
+        this.auditRollupRepository = auditRollupRepository;
+    }
+
+    public AuditEventWindow findEventsBefore(AuditEventType type, String principal, LocalDateTime from,
+                                             LocalDateTime to, Long beforeId, int size) {
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<AuditEventSummary> rows = auditEventRepository.searchBefore(type != null ? type.name() : null,
+            principal, from, to, beforeId, PageRequest.ofSize(size + 1));
+
+        if (rows.size() <= size) {
+            return new AuditEventWindow(rows, null);
+        }
+        List<AuditEventSummary> content = rows.subList(0, size);
+        return new AuditEventWindow(content, content.get(size - 1).id());
+    }
+
+    public List<AuditRollupSummary> findRollups(AuditEventType type, LocalDateTime from, LocalDateTime to) {
+        return auditRollupRepository.findBetween(from, to, type != null ? type.name() : null);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.security.authz;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.ExpressionAuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Simple role/authentication expressions are turned into set lookups once per method; anything else goes to SpEL
+public class CompiledPreAuthorizeAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final Pattern AUTHORITY_CHECK = Pattern.compile(
+        "\\s*(hasRole|hasAnyRole|hasAuthority|hasAnyAuthority)\\s*\\(\\s*('[^']*'(?:\\s*,\\s*'[^']*')*)\\s*\\)\\s*");
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'");
+
+    private final PreAuthorizeAuthorizationManager fallback;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final ConcurrentMap<MethodClassKey, CompiledCheck> checks = new ConcurrentHashMap<>();
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    public CompiledPreAuthorizeAuthorizationManager(PreAuthorizeAuthorizationManager fallback,
+                                                    Supplier<MeterRegistry> meterRegistry) {
+        this.fallback = fallback;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target != null ? AopUtils.getTargetClass(target) : null;
+        CompiledCheck check = checks.computeIfAbsent(new MethodClassKey(invocation.getMethod(), targetClass),
+            key -> compile(invocation.getMethod(), targetClass));
+
+        long start = System.nanoTime();
+        AuthorizationResult result = check.decide(authentication, invocation);
+        check.record(result, System.nanoTime() - start);
+        return result;
+    }
+
+    // Still abstract on AuthorizationManager; the method interceptor calls authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        AuthorizationResult result = authorize(authentication, invocation);
+        if (result == null || result instanceof AuthorizationDecision) {
+            return (AuthorizationDecision) result;
+        }
+        return new AuthorizationDecision(result.isGranted());
+    }
+
+    private CompiledCheck compile(Method method, Class<?> targetClass) {
+        String name = (targetClass != null ? targetClass : method.getDeclaringClass()).getSimpleName()
+            + "." + method.getName();
+
+        PreAuthorize annotation = findAnnotation(method, targetClass);
+        Rule rule = annotation != null ? parse(annotation.value()) : null;
+        if (rule == null) {
+            return new CompiledCheck(name, "spel", null, null, null, timers(name, "spel"));
+        }
+
+        Expression expression = parser.parseExpression(annotation.value());
+        return new CompiledCheck(name, "compiled", rule,
+            new ExpressionAuthorizationDecision(true, expression),
+            new ExpressionAuthorizationDecision(false, expression),
+            timers(name, "compiled"));
+    }
+
+    private static PreAuthorize findAnnotation(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod.getDeclaringClass(), PreAuthorize.class);
+        }
+        return annotation;
+    }
+
+    private static Rule parse(String expression) {
+        String trimmed = expression.trim();
+        switch (trimmed) {
+            case "permitAll":
+                return new Rule(RuleType.PERMIT_ALL, Set.of());
+            case "denyAll":
+                return new Rule(RuleType.DENY_ALL, Set.of());
+            case "isAuthenticated()":
+                return new Rule(RuleType.AUTHENTICATED, Set.of());
+            default:
+                break;
+        }
+
+        Matcher matcher = AUTHORITY_CHECK.matcher(trimmed);
+        if (!matcher.matches()) {
+            return null;
+        }
+        boolean roles = matcher.group(1).endsWith("Role");
+        Set<String> authorities = QUOTED.matcher(matcher.group(2)).results()
+            .map(result -> result.group(1))
+            .map(value -> roles && !value.startsWith(ROLE_PREFIX) ? ROLE_PREFIX + value : value)
+            .collect(Collectors.toUnmodifiableSet());
+        return new Rule(RuleType.ANY_AUTHORITY, authorities);
+    }
+
+    private Timer[] timers(String method, String strategy) {
+        MeterRegistry registry = meterRegistry.get();
+        if (registry == null) {
+            return null;
+        }
+        return Arrays.stream(new String[] {"granted", "denied"})
+            .map(decision -> Timer.builder("method.authorization")
+                .description("Time to decide @PreAuthorize for a method")
+                .tag("method", method)
+                .tag("strategy", strategy)
+                .tag("decision", decision)
+                .register(registry))
+            .toArray(Timer[]::new);
+    }
+
+    private enum RuleType {
+        PERMIT_ALL,
+        DENY_ALL,
+        AUTHENTICATED,
+        ANY_AUTHORITY
+    }
+
+    private record Rule(RuleType type, Set<String> authorities) {}
+
+    private final class CompiledCheck {
+
+        private final String method;
+        private final String strategy;
+        private final Rule rule;
+        private final AuthorizationDecision granted;
+        private final AuthorizationDecision denied;
+        private final Timer[] timers;
+
+        CompiledCheck(String method, String strategy, Rule rule, AuthorizationDecision granted,
+                      AuthorizationDecision denied, Timer[] timers) {
+            this.method = method;
+            this.strategy = strategy;
+            this.rule = rule;
+            this.granted = granted;
+            this.denied = denied;
+            this.timers = timers;
+        }
+
+        AuthorizationResult decide(Supplier<Authentication> authentication, MethodInvocation invocation) {
+            if (rule == null) {
+                return fallback.authorize(authentication, invocation);
+            }
+            return switch (rule.type()) {
+                case PERMIT_ALL -> granted;
+                case DENY_ALL -> denied;
+                case AUTHENTICATED -> trustResolver.isAuthenticated(authentication.get()) ? granted : denied;
+                case ANY_AUTHORITY -> hasAnyAuthority(authentication.get()) ? granted : denied;
+            };
+        }
+
+        void record(AuthorizationResult result, long nanos) {
+            if (timers != null && result != null) {
+                timers[result.isGranted() ? 0 : 1].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private boolean hasAnyAuthority(Authentication authentication) {
+            if (authentication == null) {
+                return false;
+            }
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                if (rule.authorities().contains(authority.getAuthority())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return method + " (" + strategy + ")";
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.security.authz;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// URL rules compiled into a segment trie; a lookup is one walk over the path plus a role bitmask test
+public final class UrlDecisionTable implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String ANY_SUFFIX = "/**";
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Node root = new Node();
+    private final Map<String, Integer> roleBits = new HashMap<>();
+    private final Decision fallback;
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    private UrlDecisionTable(List<UrlRule> rules) {
+        for (int order = 0; order < rules.size(); order++) {
+            UrlRule rule = rules.get(order);
+            Decision decision = new Decision(order, rule.access(), roleMask(rule.roles()));
+            for (String pattern : rule.patterns()) {
+                insert(pattern, decision);
+            }
+        }
+        this.fallback = new Decision(Integer.MAX_VALUE, UrlRule.Access.AUTHENTICATED, 0L);
+    }
+
+    public static UrlDecisionTable compile(List<UrlRule> rules) {
+        return new UrlDecisionTable(rules);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decision(authentication, context);
+    }
+
+    // Still abstract on AuthorizationManager; the framework calls authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decision(authentication, context);
+    }
+
+    public boolean isGranted(String path, Authentication authentication) {
+        return decide(decisionFor(PathContainer.parsePath(path)), authentication);
+    }
+
+    private AuthorizationDecision decision(Supplier<Authentication> authentication,
+                                           RequestAuthorizationContext context) {
+        Decision decision = decisionFor(pathWithinApplication(context.getRequest()));
+        return decide(decision, authentication.get()) ? GRANTED : DENIED;
+    }
+
+    // First-match semantics: of all rules matching the path, the one declared earliest wins. Segments are compared
+    // decoded and without matrix variables, as PathPatternRequestMatcher and the MVC handler mapping see them, so
+    // "/%61dmin" is governed by the "/admin/**" rule.
+    Decision decisionFor(PathContainer path) {
+        List<PathContainer.Element> elements = path.elements();
+        Node node = root;
+        Decision best = node.prefix;
+
+        int size = elements.size();
+        if (size <= 1) {
+            return earliest(earliest(best, node.exact), fallback);
+        }
+
+        // Elements alternate separator, segment; a doubled or trailing separator leaves an empty segment
+        int index = 1;
+        while (true) {
+            String segment = index < size && elements.get(index) instanceof PathContainer.PathSegment pathSegment
+                ? pathSegment.valueToMatch()
+                : "";
+            node = segment.isEmpty() ? null : node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            best = earliest(best, node.prefix);
+            if (index + 1 >= size) {
+                best = earliest(best, node.exact);
+                break;
+            }
+            index += 2;
+        }
+        return earliest(best, fallback);
+    }
+
+    private boolean decide(Decision decision, Authentication authentication) {
+        return switch (decision.access) {
+            case PERMIT_ALL -> true;
+            case AUTHENTICATED -> isAuthenticated(authentication);
+            case HAS_ANY_ROLE -> isAuthenticated(authentication) && (userMask(authentication) & decision.roleMask) != 0;
+        };
+    }
+
+    private boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated() && !trustResolver.isAnonymous(authentication);
+    }
+
+    private long userMask(Authentication authentication) {
+        long mask = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            Integer bit = roleBits.get(authority.getAuthority());
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        return mask;
+    }
+
+    private long roleMask(List<String> roles) {
+        long mask = 0;
+        for (String role : roles) {
+            String authority = role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role;
+            Integer bit = roleBits.get(authority);
+            if (bit == null) {
+                if (roleBits.size() == Long.SIZE) {
+                    throw new IllegalStateException("At most " + Long.SIZE + " distinct roles are supported");
+                }
+                bit = roleBits.size();
+                roleBits.put(authority, bit);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    private void insert(String pattern, Decision decision) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("URL pattern must start with '/': " + pattern);
+        }
+
+        boolean prefix = pattern.endsWith(ANY_SUFFIX);
+        String path = prefix ? pattern.substring(0, pattern.length() - ANY_SUFFIX.length()) : pattern;
+        if (path.contains("*") || path.contains("{")) {
+            throw new IllegalArgumentException("Only exact paths and trailing /** are supported: " + pattern);
+        }
+
+        Node node = root;
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+
+        // An earlier rule for the same pattern shadows later ones
+        if (prefix) {
+            node.prefix = earliest(node.prefix, decision);
+        } else {
+            node.exact = earliest(node.exact, decision);
+        }
+    }
+
+    private static PathContainer pathWithinApplication(HttpServletRequest request) {
+        return RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
+    }
+
+    private static Decision earliest(Decision current, Decision candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        if (candidate == null) {
+            return current;
+        }
+        return candidate.order < current.order ? candidate : current;
+    }
+
+    record Decision(int order, UrlRule.Access access, long roleMask) {}
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Decision exact;
+        private Decision prefix;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.security.authz;
+
+import java.util.List;
+
+// Patterns are either exact paths or a path prefix ending in /**
+public record UrlRule(List<String> patterns, Access access, List<String> roles) {
+
+    public enum Access {
+        PERMIT_ALL,
+        AUTHENTICATED,
+        HAS_ANY_ROLE
+    }
+
+    public static UrlRule permitAll(String... patterns) {
+        return new UrlRule(List.of(patterns), Access.PERMIT_ALL, List.of());
+    }
+
+    public static UrlRule authenticated(String... patterns) {
+        return new UrlRule(List.of(patterns), Access.AUTHENTICATED, List.of());
+    }
+
+    public static UrlRule hasAnyRole(List<String> patterns, String... roles) {
+        return new UrlRule(List.copyOf(patterns), Access.HAS_ANY_ROLE, List.of(roles));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.security.authz;
+
+import java.util.List;
+
+// URL access rules for both filter chains, first match wins; unmatched paths require authentication
+public final class UrlRules {
+
+    public static final List<UrlRule> RULES = List.of(
+        // Public endpoints - No authentication required
+        UrlRule.permitAll(
+            "/",
+            "/home",
+            "/login",
+            "/register",
+            "/forgot-password",
+            "/reset-password"
+        ),
+
+        // Static resources - No authentication required
+        UrlRule.permitAll(
+            "/css/**",
+            "/js/**",
+            "/images/**",
+            "/webjars/**",
+            "/resources/**",
+            "/static/**"
+        ),
+
+        // Health check and actuator endpoints
+        UrlRule.permitAll(
+            "/actuator/health",
+            "/actuator/info"
+        ),
+        UrlRule.hasAnyRole(List.of("/actuator/securityfilters"), "ADMIN"),
+
+        // API endpoints - Role-based access
+        UrlRule.permitAll("/api/public/**", "/api/auth/token"),
+        UrlRule.hasAnyRole(List.of("/api/user/**"), "USER", "ADMIN"),
+        UrlRule.hasAnyRole(List.of("/api/manager/**"), "MANAGER", "ADMIN"),
+        UrlRule.hasAnyRole(List.of("/api/admin/**"), "ADMIN"),
+
+        // Admin pages
+        UrlRule.hasAnyRole(List.of(
+            "/admin/**",
+            "/dashboard/admin/**"
+        ), "ADMIN"),
+
+        // Manager pages
+        UrlRule.hasAnyRole(List.of(
+            "/manager/**",
+            "/dashboard/manager/**"
+        ), "MANAGER", "ADMIN"),
+
+        // User pages
+        UrlRule.hasAnyRole(List.of(
+            "/user/**",
+            "/dashboard/user/**",
+            "/profile/**"
+        ), "USER", "MANAGER", "ADMIN")
+    );
+
+    private UrlRules() {}
+}
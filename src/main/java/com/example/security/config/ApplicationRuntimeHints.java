@@ -0,0 +1,85 @@
+package com.example.security.config;
+
+import com.example.security.dto.AuditEventSummary;
+import com.example.security.dto.AuditEventWindow;
+import com.example.security.dto.AuditRollupSummary;
+import com.example.security.dto.RememberMeDevice;
+import com.example.security.dto.TokenRequest;
+import com.example.security.dto.TokenResponse;
+import com.example.security.dto.UserImportResult;
+import com.example.security.dto.UserRegistrationDto;
+import com.example.security.dto.UserSearchCriteria;
+import com.example.security.dto.UserSummary;
+import com.example.security.dto.UserSummaryWindow;
+import com.example.security.handler.CustomAccessDeniedHandler;
+import com.example.security.handler.CustomAuthenticationFailureHandler;
+import com.example.security.handler.CustomAuthenticationSuccessHandler;
+import com.example.security.handler.CustomLogoutSuccessHandler;
+import com.example.security.model.AuditEvent;
+import com.example.security.model.AuditRollup;
+import com.example.security.model.PersistentLogin;
+import com.example.security.model.Privilege;
+import com.example.security.model.Role;
+import com.example.security.model.RoleDefinitionListener;
+import com.example.security.model.SeedVersion;
+import com.example.security.model.User;
+import com.example.security.seed.SeedDefinition;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Reflection, resource and serialization metadata that AOT processing cannot infer from bean definitions alone;
+// used by the fast-start and native builds
+public class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> ENTITIES = List.of(
+        User.class, Role.class, Privilege.class, PersistentLogin.class, SeedVersion.class, AuditEvent.class,
+        AuditRollup.class);
+
+    // Bound from JSON or form data, or written as JSON responses
+    private static final List<Class<?>> BOUND_TYPES = List.of(
+        SeedDefinition.class, TokenRequest.class, TokenResponse.class, UserImportResult.class,
+        UserRegistrationDto.class, UserSearchCriteria.class, UserSummary.class, UserSummaryWindow.class,
+        AuditEventSummary.class, AuditEventWindow.class, AuditRollupSummary.class, RememberMeDevice.class);
+
+    private static final List<Class<?>> HANDLERS = List.of(
+        CustomAuthenticationSuccessHandler.class, CustomAuthenticationFailureHandler.class,
+        CustomAccessDeniedHandler.class, CustomLogoutSuccessHandler.class);
+
+    // Security contexts that the compact session codec falls back to Java serialization for
+    private static final List<Class<? extends Serializable>> SESSION_TYPES = List.of(
+        SecurityContextImpl.class, UsernamePasswordAuthenticationToken.class,
+        org.springframework.security.core.userdetails.User.class, SimpleGrantedAuthority.class,
+        WebAuthenticationDetails.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("seed/*.json");
+
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        // Instantiated by Hibernate, which then calls the lifecycle callbacks reflectively
+        hints.reflection().registerType(RoleDefinitionListener.class,
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+            BOUND_TYPES.toArray(Class<?>[]::new));
+
+        for (Class<?> handler : HANDLERS) {
+            hints.reflection().registerType(handler, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        SESSION_TYPES.forEach(type -> hints.serialization().registerType(type));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.security.config;
+
+import com.example.security.observation.ProfilingFilterChainDecorator;
+import com.example.security.observation.SecurityFilterProfiler;
+import com.example.security.observation.SecurityFilterProfilerHandler;
+import com.example.security.observation.SecurityFiltersEndpoint;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.ObservationFilterChainDecorator;
+
+// Opt-in profiling of the security filter chains; off by default, and when on only a sample of requests is timed
+@Configuration
+@ConditionalOnProperty(name = "app.security.filter-profiler.enabled", havingValue = "true")
+public class FilterProfilerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilterProfilerConfig.class);
+
+    @Bean
+    public SecurityFilterProfiler securityFilterProfiler(
+            @Value("${app.security.filter-profiler.sample-rate:0.01}") double sampleRate) {
+        logger.info("Security filter profiler enabled, sampling {}% of requests", sampleRate * 100);
+        return new SecurityFilterProfiler(sampleRate);
+    }
+
+    @Bean
+    public SecurityFilterProfilerHandler securityFilterProfilerHandler(SecurityFilterProfiler securityFilterProfiler) {
+        return new SecurityFilterProfilerHandler(securityFilterProfiler);
+    }
+
+    @Bean
+    public SecurityFiltersEndpoint securityFiltersEndpoint(SecurityFilterProfiler securityFilterProfiler) {
+        return new SecurityFiltersEndpoint(securityFilterProfiler);
+    }
+
+    // Static and lazily resolved, so registering the post-processor does not initialize the profiler early
+    @Bean
+    public static BeanPostProcessor securityFilterProfilerPostProcessor(ObjectProvider<SecurityFilterProfiler> profiler,
+                                                                        ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof FilterChainProxy filterChainProxy) {
+                    // Same choice Spring Security makes when it builds the proxy
+                    ObservationRegistry registry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+                    FilterChainProxy.FilterChainDecorator framework = registry.isNoop()
+                        ? new FilterChainProxy.VirtualFilterChainDecorator()
+                        : new ObservationFilterChainDecorator(registry);
+                    filterChainProxy.setFilterChainDecorator(
+                        new ProfilingFilterChainDecorator(framework, profiler.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.security.config;
+
+import com.example.security.authz.UrlDecisionTable;
+import com.example.security.jwt.CachingJwtDecoder;
+import com.example.security.jwt.JwtKeyRing;
+import com.example.security.jwt.JwtTokenService;
+import com.example.security.service.RoleAuthorityTable;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.savedrequest.NullRequestCache;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "app.security.jwt.enabled", havingValue = "true")
+public class JwtSecurityConfig {
+
+    @Value("${app.security.jwt.keys:}")
+    private List<String> keys;
+
+    @Value("${app.security.jwt.issuer:spring-security-demo}")
+    private String issuer;
+
+    @Value("${app.security.jwt.ttl:15m}")
+    private Duration ttl;
+
+    @Value("${app.security.jwt.verified-cache.maximum-size:100000}")
+    private long verifiedCacheSize;
+
+    // Runs ahead of the form-login chain; /api/** never touches the HTTP session
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http,
+                                                      JwtDecoder jwtDecoder,
+                                                      JwtAuthenticationConverter jwtAuthenticationConverter,
+                                                      UrlDecisionTable urlDecisionTable) throws Exception {
+        http
+            .securityMatcher("/api/**")
+            .authorizeHttpRequests(auth -> auth
+                .anyRequest().access(urlDecisionTable)
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt
+                    .decoder(jwtDecoder)
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter)
+                )
+            )
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+            // Bearer tokens are not sent automatically by browsers, so CSRF does not apply
+            .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
+    @Bean
+    public JwtKeyRing jwtKeyRing() {
+        // Never fall back to a built-in key: anyone holding it could mint tokens with any role
+        if (keys.isEmpty()) {
+            throw new IllegalStateException(
+                "app.security.jwt.enabled is true but no key is set; provide APP_SECURITY_JWT_KEYS");
+        }
+        return new JwtKeyRing(keys);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwtKeyRing keyRing, MeterRegistry meterRegistry) {
+        return new CachingJwtDecoder(keyRing.newDecoder(issuer), verifiedCacheSize, meterRegistry);
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(JwtKeyRing keyRing) {
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(keyRing.getSigningKey())));
+    }
+
+    @Bean
+    public JwtTokenService jwtTokenService(JwtEncoder jwtEncoder, JwtKeyRing keyRing) {
+        return new JwtTokenService(jwtEncoder, keyRing.getSigningKey().getKeyID(), issuer, ttl);
+    }
+
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter(RoleAuthorityTable roleAuthorityTable) {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            List<String> roles = jwt.getClaimAsStringList(JwtTokenService.ROLES_CLAIM);
+            return roles == null ? List.of() : roleAuthorityTable.authoritiesFor(roles);
+        });
+        return converter;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.security.config;
+
+import com.example.security.crypto.BCryptCostCalibrator;
+import com.example.security.crypto.OffloadingPasswordEncoder;
+import com.example.security.crypto.PasswordHashingExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String BCRYPT_ID = "bcrypt";
+
+    @Value("${app.security.password.encoding:bcrypt}")
+    private String encoding;
+
+    @Value("${app.security.password.bcrypt-strength:12}")
+    private int bcryptStrength;
+
+    @Value("${app.security.password.calibration.enabled:false}")
+    private boolean calibrationEnabled;
+
+    @Value("${app.security.password.calibration.latency-budget:100ms}")
+    private Duration latencyBudget;
+
+    @Value("${app.security.password.calibration.min-strength:10}")
+    private int minStrength;
+
+    @Value("${app.security.password.calibration.max-strength:14}")
+    private int maxStrength;
+
+    @Value("${app.security.password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.password.hashing.timeout:5s}")
+    private Duration hashingTimeout;
+
+    @Value("${app.security.password.hashing.retry-after:5s}")
+    private Duration hashingRetryAfter;
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingExecutor passwordHashingExecutor(MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingExecutor(threads, hashingQueueCapacity, hashingTimeout, hashingRetryAfter,
+            meterRegistry);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                                           ObservationRegistry observationRegistry) {
+        // Hashing runs on a bounded pool so a login burst cannot tie up every request thread
+        return new OffloadingPasswordEncoder(policyPasswordEncoder(), passwordHashingExecutor, observationRegistry);
+    }
+
+    private PasswordEncoder policyPasswordEncoder() {
+        int strength = calibrationEnabled
+            ? new BCryptCostCalibrator(latencyBudget, minStrength, maxStrength).calibrate()
+            : bcryptStrength;
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        if (!"delegating".equalsIgnoreCase(encoding)) {
+            logger.info("Using BCrypt password encoding with cost {}", strength);
+            return bcrypt;
+        }
+
+        // Legacy hashes carry no {id} prefix; they still match and get re-encoded on the next login
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        logger.info("Using delegating password encoding ({}) with cost {}", BCRYPT_ID, strength);
+        return delegating;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.security.config;
+
+import com.example.security.rememberme.CachingPersistentTokenRememberMeServices;
+import com.example.security.rememberme.PersistentLoginTokenStore;
+import com.example.security.service.CustomUserDetailsService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.authentication.rememberme.AbstractRememberMeServices;
+import org.springframework.security.web.authentication.rememberme.TokenBasedRememberMeServices;
+
+import java.time.Duration;
+
+@Configuration
+public class RememberMeConfig {
+
+    @Value("${app.security.remember-me.mode:persistent}")
+    private String mode;
+
+    @Value("${app.security.remember-me.key:}")
+    private String key;
+
+    @Value("${app.security.remember-me.validity:24h}")
+    private Duration validity;
+
+    @Bean
+    public AbstractRememberMeServices rememberMeServices(CustomUserDetailsService userDetailsService,
+                                                         ObjectProvider<PersistentLoginTokenStore> tokenStore) {
+        // Never fall back to a built-in key: anyone holding it could forge hash-based cookies for any user
+        if (key.isBlank()) {
+            throw new IllegalStateException(
+                "app.security.remember-me.key is not set; provide APP_SECURITY_REMEMBER_ME_KEY");
+        }
+        AbstractRememberMeServices services;
+        if ("persistent".equalsIgnoreCase(mode)) {
+            services = new CachingPersistentTokenRememberMeServices(key, userDetailsService, tokenStore.getObject());
+        } else {
+            services = new TokenBasedRememberMeServices(key, userDetailsService);
+        }
+        services.setTokenValiditySeconds((int) validity.toSeconds());
+        services.setParameter("remember-me");
+        return services;
+    }
+}
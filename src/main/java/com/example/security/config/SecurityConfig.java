@@ -1,29 +1,34 @@
 package com.example.security.config;
 
+import com.example.security.authz.UrlDecisionTable;
+import com.example.security.authz.UrlRules;
+import com.example.security.filter.LoginAttemptFilter;
 import com.example.security.handler.CustomAccessDeniedHandler;
 import com.example.security.handler.CustomAuthenticationFailureHandler;
 import com.example.security.handler.CustomAuthenticationSuccessHandler;
 import com.example.security.handler.CustomLogoutSuccessHandler;
 import com.example.security.service.CustomUserDetailsService;
+import com.example.security.service.LoginAttemptService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.RememberMeServices;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.session.HttpSessionEventPublisher;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity(prePostEnabled = true, securedEnabled = true, jsr250Enabled = true)
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
@@ -31,75 +36,36 @@ public class SecurityConfig {
     private final CustomAuthenticationFailureHandler failureHandler;
     private final CustomAccessDeniedHandler accessDeniedHandler;
     private final CustomLogoutSuccessHandler logoutSuccessHandler;
+    private final LoginAttemptService loginAttemptService;
+    private final RememberMeServices rememberMeServices;
+    private final SessionRegistry sessionRegistry;
 
     public SecurityConfig(CustomUserDetailsService userDetailsService,
                          CustomAuthenticationSuccessHandler successHandler,
                          CustomAuthenticationFailureHandler failureHandler,
                          CustomAccessDeniedHandler accessDeniedHandler,
-                         CustomLogoutSuccessHandler logoutSuccessHandler) {
+                         CustomLogoutSuccessHandler logoutSuccessHandler,
+                         LoginAttemptService loginAttemptService,
+                         RememberMeServices rememberMeServices,
+                         SessionRegistry sessionRegistry) {
         this.userDetailsService = userDetailsService;
         this.successHandler = successHandler;
         this.failureHandler = failureHandler;
         this.accessDeniedHandler = accessDeniedHandler;
         this.logoutSuccessHandler = logoutSuccessHandler;
+        this.loginAttemptService = loginAttemptService;
+        this.rememberMeServices = rememberMeServices;
+        this.sessionRegistry = sessionRegistry;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, UrlDecisionTable urlDecisionTable) throws Exception {
         http
+            // URL rules live in UrlRules and are compiled into a single decision table
             .authorizeHttpRequests(auth -> auth
-                // Public endpoints - No authentication required
-                .requestMatchers(
-                    "/",
-                    "/home",
-                    "/login",
-                    "/register",
-                    "/forgot-password",
-                    "/reset-password"
-                ).permitAll()
-                
-                // Static resources - No authentication required
-                .requestMatchers(
-                    "/css/**",
-                    "/js/**",
-                    "/images/**",
-                    "/webjars/**",
-                    "/resources/**",
-                    "/static/**"
-                ).permitAll()
-                
-                // Health check and actuator endpoints
-                .requestMatchers(
-                    "/actuator/health",
-                    "/actuator/info"
-                ).permitAll()
-                
-                // API endpoints - Role-based access
-                .requestMatchers("/api/public/**").permitAll()
-                .requestMatchers("/api/user/**").hasAnyRole("USER", "ADMIN")
-                .requestMatchers("/api/admin/**").hasRole("ADMIN")
-                
-                // Admin pages
-                .requestMatchers(
-                    "/admin/**",
-                    "/dashboard/admin/**"
-                ).hasRole("ADMIN")
-                
-                // Manager pages
-                .requestMatchers(
-                    "/manager/**",
-                    "/dashboard/manager/**"
-                ).hasAnyRole("MANAGER", "ADMIN")
-                
-                // User pages
-                .requestMatchers(
-                    "/user/**",
-                    "/dashboard/user/**",
-                    "/profile/**"
-                ).hasAnyRole("USER", "MANAGER", "ADMIN")
-                
-                // All other requests require authentication
-                .anyRequest().authenticated()
+                // The original request was already authorized; its forward to the JSP view or error page is not re-checked
+                .dispatcherTypeMatchers(DispatcherType.FORWARD, DispatcherType.ERROR).permitAll()
+                .anyRequest().access(urlDecisionTable)
             )
             
             // Form-based login configuration
@@ -113,6 +79,10 @@ public class SecurityConfig {
                 .permitAll()
             )
             
+            // Throttle repeated failures per username and client IP before authentication runs
+            .addFilterBefore(new LoginAttemptFilter("/perform-login", loginAttemptService, failureHandler),
+                UsernamePasswordAuthenticationFilter.class)
+            
             // Logout configuration
             .logout(logout -> logout
                 .logoutRequestMatcher(new AntPathRequestMatcher("/logout", "POST"))
@@ -123,12 +93,9 @@ public class SecurityConfig {
                 .permitAll()
             )
             
-            // Remember-me configuration
+            // Remember-me configuration (persistent or hash-based, see RememberMeConfig)
             .rememberMe(remember -> remember
-                .key("uniqueAndSecretKey")
-                .tokenValiditySeconds(86400) // 24 hours
-                .userDetailsService(userDetailsService)
-                .rememberMeParameter("remember-me")
+                .rememberMeServices(rememberMeServices)
             )
             
             // Session management
@@ -137,6 +104,7 @@ public class SecurityConfig {
                 .maximumSessions(1)
                 .maxSessionsPreventsLogin(false)
                 .expiredUrl("/login?expired")
+                .sessionRegistry(sessionRegistry)
             )
             
             // CSRF protection (important for form-based apps)
@@ -166,15 +134,22 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public UrlDecisionTable urlDecisionTable() {
+        return UrlDecisionTable.compile(UrlRules.RULES);
+    }
+
+    // Forwards container session lifecycle events so the session registry drops destroyed sessions
+    @Bean
+    public HttpSessionEventPublisher httpSessionEventPublisher() {
+        return new HttpSessionEventPublisher();
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setHideUserNotFoundExceptions(false);
         return provider;
     }
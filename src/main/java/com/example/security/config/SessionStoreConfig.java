@@ -0,0 +1,66 @@
+package com.example.security.config;
+
+import com.example.security.service.RoleAuthorityTable;
+import com.example.security.session.CompactSession;
+import com.example.security.session.CompactSessionRepository;
+import com.example.security.session.SessionAttributeCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.jdbc.init.PlatformPlaceholderDatabaseDriverResolver;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Opt-in shared session store; without it sessions stay in the servlet container
+@Configuration
+@EnableSpringHttpSession
+@ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+public class SessionStoreConfig {
+
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration sessionTimeout;
+
+    @Value("${app.session.near-cache.maximum-size:10000}")
+    private long nearCacheSize;
+
+    @Value("${app.session.touch-interval:10s}")
+    private Duration touchInterval;
+
+    @Value("${app.session.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
+    @Value("${app.session.jdbc.initialize-schema:true}")
+    private boolean initializeSchema;
+
+    @Bean
+    public DataSourceScriptDatabaseInitializer sessionSchemaInitializer(DataSource dataSource) {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(new PlatformPlaceholderDatabaseDriverResolver()
+            .resolveAll(dataSource, "classpath:session/schema-@@platform@@.sql"));
+        settings.setMode(initializeSchema ? DatabaseInitializationMode.ALWAYS : DatabaseInitializationMode.NEVER);
+        return new DataSourceScriptDatabaseInitializer(dataSource, settings);
+    }
+
+    @Bean
+    public CompactSessionRepository sessionRepository(JdbcTemplate jdbcTemplate,
+                                                      RoleAuthorityTable roleAuthorityTable,
+                                                      MeterRegistry meterRegistry) {
+        return new CompactSessionRepository(jdbcTemplate, new SessionAttributeCodec(roleAuthorityTable::authority),
+            meterRegistry, nearCacheSize, sessionTimeout, touchInterval, cleanupBatchSize);
+    }
+
+    // Concurrent-session control reads the shared table, so maximumSessions holds across nodes
+    @Bean
+    public SpringSessionBackedSessionRegistry<CompactSession> sessionRegistry(CompactSessionRepository sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.security.controller;
+
+import com.example.security.audit.AuditEventType;
+import com.example.security.audit.AuditQueryService;
+import com.example.security.dto.AuditEventWindow;
+import com.example.security.dto.AuditRollupSummary;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Audit events are written in the background, so the newest ones can take up to a flush interval to appear
+@RestController
+@RequestMapping("/api/admin/audit")
+public class AuditController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final AuditQueryService auditQueryService;
+
+    public AuditController(AuditQueryService auditQueryService) {
+        this.auditQueryService = auditQueryService;
+    }
+
+    // Newest first; pass "before" (the nextCursor of the previous window) to page back in time
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public AuditEventWindow listEvents(@RequestParam(required = false) AuditEventType type,
+                                       @RequestParam(required = false) String principal,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                       LocalDateTime from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                       LocalDateTime to,
+                                       @RequestParam(required = false) Long before,
+                                       @RequestParam(defaultValue = "50") int size) {
+        return auditQueryService.findEventsBefore(type, principal, from, to, before,
+            Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    // Per-minute counts, the last hour unless a range is given
+    @GetMapping("/rollups")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<AuditRollupSummary> listRollups(@RequestParam(required = false) AuditEventType type,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDateTime start = from != null ? from : end.minusHours(1);
+        return auditQueryService.findRollups(type, start, end);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.security.controller;
 
+import com.example.security.crypto.PasswordHashingRejectedException;
 import com.example.security.dto.UserRegistrationDto;
 import com.example.security.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -70,6 +71,8 @@ public class AuthController {
             logger.info("New user registered: {}", userDto.getUsername());
             redirectAttributes.addFlashAttribute("successMessage", "Registration successful! Please login.");
             return "redirect:/login";
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error during user registration: {}", e.getMessage());
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
@@ -1,19 +1,40 @@
 package com.example.security.controller;
 
+import com.example.security.dto.UserSearchCriteria;
+import com.example.security.dto.UserSummary;
+import com.example.security.dto.UserSummaryWindow;
+import com.example.security.service.UserService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
 
 @Controller
 public class DashboardController {
 
+    private final UserService userService;
+
+    public DashboardController(UserService userService) {
+        this.userService = userService;
+    }
+
     @GetMapping("/user/dashboard")
     @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
     public String userDashboard(Model model, Authentication authentication) {
         model.addAttribute("username", authentication.getName());
         model.addAttribute("authorities", authentication.getAuthorities());
+        // The cached principal carries no email, so the dashboards get it from here
+        model.addAttribute("email", userService.findEmailByUsername(authentication.getName()).orElse(null));
         return "user/dashboard";
     }
 
@@ -22,6 +43,7 @@ public class DashboardController {
     public String managerDashboard(Model model, Authentication authentication) {
         model.addAttribute("username", authentication.getName());
         model.addAttribute("authorities", authentication.getAuthorities());
+        model.addAttribute("email", userService.findEmailByUsername(authentication.getName()).orElse(null));
         return "manager/dashboard";
     }
 
@@ -30,6 +52,7 @@ public class DashboardController {
     public String adminDashboard(Model model, Authentication authentication) {
         model.addAttribute("username", authentication.getName());
         model.addAttribute("authorities", authentication.getAuthorities());
+        model.addAttribute("email", userService.findEmailByUsername(authentication.getName()).orElse(null));
         return "admin/dashboard";
     }
 
@@ -46,6 +69,16 @@ public class DashboardController {
 @org.springframework.web.bind.annotation.RequestMapping("/api")
 class ApiController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final java.util.Set<String> SORTABLE_PROPERTIES =
+            java.util.Set.of("id", "username", "createdAt", "lastLogin");
+
+    private final UserService userService;
+
+    ApiController(UserService userService) {
+        this.userService = userService;
+    }
+
     @GetMapping("/public/info")
     public java.util.Map<String, String> publicInfo() {
         return java.util.Map.of(
@@ -84,4 +117,51 @@ class ApiController {
                 "timestamp", java.time.LocalDateTime.now()
         );
     }
+
+    // Offset pages for browsing; pass "after" (the last id seen) to switch to keyset paging for deep pages
+    @GetMapping("/admin/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PagedModel<UserSummary> listUsers(@RequestParam(required = false) String role,
+                                             @RequestParam(required = false) Boolean enabled,
+                                             @RequestParam(required = false) Boolean locked,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             java.time.LocalDateTime lastLoginFrom,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                             java.time.LocalDateTime lastLoginTo,
+                                             @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        UserSearchCriteria criteria = new UserSearchCriteria(role, enabled, locked, lastLoginFrom, lastLoginTo);
+        int size = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+        return new PagedModel<>(userService.findUsers(criteria,
+                PageRequest.of(pageable.getPageNumber(), size, sortableOnly(pageable.getSort()))));
+    }
+
+    @GetMapping(value = "/admin/users", params = "after")
+    @PreAuthorize("hasRole('ADMIN')")
+    public UserSummaryWindow listUsersAfter(@RequestParam(required = false) String role,
+                                            @RequestParam(required = false) Boolean enabled,
+                                            @RequestParam(required = false) Boolean locked,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                            java.time.LocalDateTime lastLoginFrom,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                            java.time.LocalDateTime lastLoginTo,
+                                            @RequestParam long after,
+                                            @RequestParam(defaultValue = "20") int size) {
+        UserSearchCriteria criteria = new UserSearchCriteria(role, enabled, locked, lastLoginFrom, lastLoginTo);
+        return userService.findUsersAfter(criteria, after, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    // The sort goes straight into the listing query, so only the listed columns may be named
+    private static Sort sortableOnly(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cannot sort users by '" + order.getProperty() + "'");
+            }
+        }
+        return sort;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.example.security.controller;
+
+import com.example.security.dto.RememberMeDevice;
+import com.example.security.rememberme.PersistentLoginTokenStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Remember-me logins are kept per device (one series each), so they can be revoked one at a time
+@RestController
+@ConditionalOnProperty(name = "app.security.remember-me.mode", havingValue = "persistent", matchIfMissing = true)
+public class RememberMeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RememberMeController.class);
+
+    private final PersistentLoginTokenStore tokenStore;
+
+    public RememberMeController(PersistentLoginTokenStore tokenStore) {
+        this.tokenStore = tokenStore;
+    }
+
+    // The caller's own devices, most recently used first
+    @GetMapping("/api/account/remember-me")
+    public List<RememberMeDevice> listDevices(Authentication authentication) {
+        return tokenStore.findDevices(authentication.getName());
+    }
+
+    @DeleteMapping("/api/account/remember-me/{series}")
+    public ResponseEntity<Void> revokeDevice(@PathVariable String series, Authentication authentication) {
+        if (!tokenStore.removeSeries(authentication.getName(), series)) {
+            return ResponseEntity.notFound().build();
+        }
+        logger.info("User {} revoked a remember-me login", authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/api/admin/users/{username}/remember-me")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeAllDevices(@PathVariable String username, Authentication authentication) {
+        tokenStore.removeUserTokens(username);
+        logger.info("Admin {} revoked all remember-me logins for user: {}", authentication.getName(), username);
+        return ResponseEntity.noContent().build();
+    }
+}
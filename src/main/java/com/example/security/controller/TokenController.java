@@ -0,0 +1,87 @@
+package com.example.security.controller;
+
+import com.example.security.crypto.PasswordHashingRejectedException;
+import com.example.security.dto.TokenRequest;
+import com.example.security.dto.TokenResponse;
+import com.example.security.jwt.JwtTokenService;
+import com.example.security.service.LoginAttemptService;
+import com.example.security.service.LoginBookkeepingWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnProperty(name = "app.security.jwt.enabled", havingValue = "true")
+public class TokenController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenController.class);
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtTokenService jwtTokenService;
+    private final LoginAttemptService loginAttemptService;
+    private final LoginBookkeepingWriter loginBookkeepingWriter;
+
+    public TokenController(AuthenticationManager authenticationManager,
+                           JwtTokenService jwtTokenService,
+                           LoginAttemptService loginAttemptService,
+                           LoginBookkeepingWriter loginBookkeepingWriter) {
+        this.authenticationManager = authenticationManager;
+        this.jwtTokenService = jwtTokenService;
+        this.loginAttemptService = loginAttemptService;
+        this.loginBookkeepingWriter = loginBookkeepingWriter;
+    }
+
+    @PostMapping("/token")
+    public ResponseEntity<?> issueToken(@RequestBody TokenRequest tokenRequest, HttpServletRequest request) {
+        String username = tokenRequest.username();
+        String ip = request.getRemoteAddr();
+
+        if (loginAttemptService.isBlocked(username, ip)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(Map.of("error", "Too many failed login attempts, please try again later"));
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(username, tokenRequest.password()));
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
+        } catch (BadCredentialsException e) {
+            int attempts = loginAttemptService.loginFailed(username, ip);
+            loginBookkeepingWriter.loginFailed(username, attempts);
+            logger.warn("Token request failed for user: {}", username);
+            return unauthorized();
+        } catch (AuthenticationException e) {
+            loginAttemptService.loginFailed(username, ip);
+            logger.warn("Token request rejected for user {}: {}", username, e.getMessage());
+            return unauthorized();
+        }
+
+        loginAttemptService.loginSucceeded(username);
+        loginBookkeepingWriter.loginSucceeded(username);
+        logger.info("Issued access token for user: {}", username);
+
+        return ResponseEntity.ok(new TokenResponse(
+            jwtTokenService.issueToken(authentication), "Bearer", jwtTokenService.getTtl().toSeconds()));
+    }
+
+    private static ResponseEntity<Map<String, String>> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid username or password"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.security.crypto;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+public class BCryptCostCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-Password@123";
+    private static final int SAMPLES = 3;
+
+    private final Duration latencyBudget;
+    private final int minStrength;
+    private final int maxStrength;
+
+    public BCryptCostCalibrator(Duration latencyBudget, int minStrength, int maxStrength) {
+        this.latencyBudget = latencyBudget;
+        this.minStrength = minStrength;
+        this.maxStrength = maxStrength;
+    }
+
+    public int calibrate() {
+        long budgetNanos = latencyBudget.toNanos();
+        int chosen = minStrength;
+
+        // Warm up the JIT so the first measurement is not dominated by interpretation
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE_PASSWORD);
+
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long nanos = measure(strength);
+            logger.debug("BCrypt cost {} takes {} ms", strength, nanos / 1_000_000);
+            if (nanos > budgetNanos) {
+                break;
+            }
+            chosen = strength;
+            // Each step doubles the work, so the next cost would already be over budget
+            if (nanos * 2 > budgetNanos) {
+                break;
+            }
+        }
+
+        logger.info("Calibrated BCrypt cost {} for a latency budget of {} ms", chosen, latencyBudget.toMillis());
+        return chosen;
+    }
+
+    private long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.security.crypto;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+    private final ObservationRegistry observationRegistry;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor,
+                                     ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.observationRegistry = observationRegistry;
+    }
+
+    // Bulk work that schedules its own parallelism hashes on the delegate directly
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        // Observed on the calling thread, so the time covers the queue wait as well as the hash
+        Observation observation = Observation.createNotStarted("auth.password.verify", observationRegistry)
+            .lowCardinalityKeyValue("outcome", "rejected");
+        return observation.observe(() -> {
+            boolean matched = executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+            observation.lowCardinalityKeyValue("outcome", matched ? "match" : "mismatch");
+            return matched;
+        });
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the hash prefix, not worth a trip through the pool
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.security.dto;
+
+import java.time.LocalDateTime;
+
+public record AuditEventSummary(
+    Long id,
+    LocalDateTime occurredAt,
+    String type,
+    String principal,
+    String remoteAddress,
+    String detail
+) {}
@@ -0,0 +1,6 @@
+package com.example.security.dto;
+
+import java.util.List;
+
+// Newest first: pass nextCursor back as the "before" id to continue, null when exhausted
+public record AuditEventWindow(List<AuditEventSummary> content, Long nextCursor) {}
@@ -0,0 +1,5 @@
+package com.example.security.dto;
+
+import java.time.LocalDateTime;
+
+public record AuditRollupSummary(LocalDateTime minute, String type, long count) {}
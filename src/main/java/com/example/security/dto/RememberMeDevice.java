@@ -0,0 +1,5 @@
+package com.example.security.dto;
+
+import java.time.LocalDateTime;
+
+public record RememberMeDevice(String series, LocalDateTime lastUsed) {}
@@ -0,0 +1,3 @@
+package com.example.security.dto;
+
+public record TokenRequest(String username, String password) {}
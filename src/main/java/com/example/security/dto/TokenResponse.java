@@ -0,0 +1,3 @@
+package com.example.security.dto;
+
+public record TokenResponse(String accessToken, String tokenType, long expiresIn) {}
@@ -0,0 +1,16 @@
+package com.example.security.dto;
+
+import java.util.List;
+
+// Outcome of a bulk import; errors lists at most the first rejected rows, rejected counts all of them
+public record UserImportResult(
+    long rowsRead,
+    long imported,
+    long rejected,
+    List<RowError> errors,
+    long elapsedMillis,
+    double rowsPerSecond
+) {
+
+    public record RowError(long line, String username, String message) {}
+}
@@ -0,0 +1,17 @@
+package com.example.security.dto;
+
+import java.time.LocalDateTime;
+
+// Every field is optional; null means "do not filter on this"
+public record UserSearchCriteria(
+    String roleName,
+    Boolean enabled,
+    Boolean locked,
+    LocalDateTime lastLoginFrom,
+    LocalDateTime lastLoginTo
+) {
+
+    public static UserSearchCriteria any() {
+        return new UserSearchCriteria(null, null, null, null, null);
+    }
+}
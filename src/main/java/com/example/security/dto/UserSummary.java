@@ -0,0 +1,15 @@
+package com.example.security.dto;
+
+import java.time.LocalDateTime;
+
+public record UserSummary(
+    Long id,
+    String username,
+    String email,
+    String firstName,
+    String lastName,
+    boolean enabled,
+    boolean accountNonLocked,
+    LocalDateTime lastLogin,
+    LocalDateTime createdAt
+) {}
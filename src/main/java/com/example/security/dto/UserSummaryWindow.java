@@ -0,0 +1,6 @@
+package com.example.security.dto;
+
+import java.util.List;
+
+// One keyset page: pass nextCursor back as the "after" id to continue, null when exhausted
+public record UserSummaryWindow(List<UserSummary> content, Long nextCursor) {}
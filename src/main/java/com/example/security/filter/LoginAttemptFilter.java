@@ -0,0 +1,45 @@
+package com.example.security.filter;
+
+import com.example.security.service.LoginAttemptService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class LoginAttemptFilter extends OncePerRequestFilter {
+
+    private final RequestMatcher loginRequestMatcher;
+    private final LoginAttemptService loginAttemptService;
+    private final AuthenticationFailureHandler failureHandler;
+
+    public LoginAttemptFilter(String loginProcessingUrl,
+                              LoginAttemptService loginAttemptService,
+                              AuthenticationFailureHandler failureHandler) {
+        this.loginRequestMatcher = new AntPathRequestMatcher(loginProcessingUrl, "POST");
+        this.loginAttemptService = loginAttemptService;
+        this.failureHandler = failureHandler;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !loginRequestMatcher.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // Rejected before any user lookup or password hashing takes place
+        if (loginAttemptService.isBlocked(request.getParameter("username"), request.getRemoteAddr())) {
+            failureHandler.onAuthenticationFailure(request, response,
+                new LoginThrottledException("Too many failed login attempts"));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
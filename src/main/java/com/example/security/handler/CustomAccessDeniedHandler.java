@@ -1,5 +1,7 @@
 package com.example.security.handler;
 
+import com.example.security.audit.AuditEventPublisher;
+import com.example.security.audit.AuditEventType;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -17,6 +19,11 @@ import java.io.IOException;
 public class CustomAccessDeniedHandler implements AccessDeniedHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomAccessDeniedHandler.class);
+    private final AuditEventPublisher auditEventPublisher;
+
+    public CustomAccessDeniedHandler(AuditEventPublisher auditEventPublisher) {
+        this.auditEventPublisher = auditEventPublisher;
+    }
 
     @Override
     public void handle(HttpServletRequest request, HttpServletResponse response,
@@ -25,8 +32,10 @@ public class CustomAccessDeniedHandler implements AccessDeniedHandler {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         
         if (auth != null) {
-            logger.warn("User: {} attempted to access protected URL: {}",
+            logger.debug("User: {} attempted to access protected URL: {}",
                 auth.getName(), request.getRequestURI());
+            auditEventPublisher.publish(AuditEventType.ACCESS_DENIED, auth.getName(), request.getRemoteAddr(),
+                request.getMethod() + " " + request.getRequestURI());
         }
 
         // Check if it's an AJAX request
@@ -1,12 +1,23 @@
 package com.example.security.handler;
 
-import com.example.security.model.User;
+import com.example.security.audit.AuditEventPublisher;
+import com.example.security.audit.AuditEventType;
+import com.example.security.crypto.PasswordHashingRejectedException;
+import com.example.security.filter.LoginThrottledException;
 import com.example.security.repository.UserRepository;
+import com.example.security.service.LoginAttemptService;
+import com.example.security.service.LoginBookkeepingWriter;
+import com.example.security.service.UserDetailsCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.LockedException;
@@ -18,16 +29,34 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 @Component
 public class CustomAuthenticationFailureHandler implements AuthenticationFailureHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomAuthenticationFailureHandler.class);
-    private static final int MAX_FAILED_ATTEMPTS = 5;
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final LoginAttemptService loginAttemptService;
+    private final LoginBookkeepingWriter loginBookkeepingWriter;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final AuditEventPublisher auditEventPublisher;
 
-    public CustomAuthenticationFailureHandler(UserRepository userRepository) {
+    public CustomAuthenticationFailureHandler(UserRepository userRepository,
+                                              UserDetailsCache userDetailsCache,
+                                              LoginAttemptService loginAttemptService,
+                                              LoginBookkeepingWriter loginBookkeepingWriter,
+                                              MeterRegistry meterRegistry,
+                                              ObservationRegistry observationRegistry,
+                                              AuditEventPublisher auditEventPublisher) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.loginAttemptService = loginAttemptService;
+        this.loginBookkeepingWriter = loginBookkeepingWriter;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.auditEventPublisher = auditEventPublisher;
     }
 
     @Override
@@ -37,21 +66,39 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
         String username = request.getParameter("username");
         String errorMessage;
 
-        if (exception instanceof BadCredentialsException) {
+        if (exception instanceof PasswordHashingRejectedException rejected) {
+            countFailure("hashing_rejected");
+            logger.debug("Login attempt for user: {} rejected, password hashing is saturated", username);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many login attempts in progress");
+            return;
+        }
+
+        if (exception instanceof LoginThrottledException) {
+            errorMessage = "Too many failed login attempts, please try again later";
+            countFailure("throttled");
+            logger.debug("Throttled login attempt for user: {} from {}", username, request.getRemoteAddr());
+        } else if (exception instanceof BadCredentialsException) {
             errorMessage = "Invalid username or password";
-            handleFailedLoginAttempt(username);
-            logger.warn("Failed login attempt for user: {}", username);
+            recordFailure("bad_credentials", username, request.getRemoteAddr());
+            observeBookkeeping(() -> handleFailedLoginAttempt(username, request.getRemoteAddr()));
+            logger.debug("Failed login attempt for user: {}", username);
         } else if (exception instanceof DisabledException) {
             errorMessage = "Your account has been disabled";
-            logger.warn("Login attempt for disabled account: {}", username);
+            recordFailure("disabled", username, request.getRemoteAddr());
+            logger.debug("Login attempt for disabled account: {}", username);
         } else if (exception instanceof LockedException) {
             errorMessage = "Your account has been locked due to multiple failed login attempts";
-            logger.warn("Login attempt for locked account: {}", username);
+            recordFailure("locked", username, request.getRemoteAddr());
+            logger.debug("Login attempt for locked account: {}", username);
         } else if (exception instanceof UsernameNotFoundException) {
             errorMessage = "User not found";
-            logger.warn("Login attempt for non-existent user: {}", username);
+            recordFailure("user_not_found", username, request.getRemoteAddr());
+            observeBookkeeping(() -> loginAttemptService.loginFailed(username, request.getRemoteAddr()));
+            logger.debug("Login attempt for non-existent user: {}", username);
         } else {
             errorMessage = "Authentication failed";
+            recordFailure("other", username, request.getRemoteAddr());
             logger.error("Authentication failed for user: {} with exception: {}", username, exception.getMessage());
         }
 
@@ -59,17 +106,43 @@ public class CustomAuthenticationFailureHandler implements AuthenticationFailure
         response.sendRedirect("/login?error=true&message=" + encodedMessage);
     }
 
-    private void handleFailedLoginAttempt(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            int attempts = user.getFailedLoginAttempts() + 1;
-            user.setFailedLoginAttempts(attempts);
+    // The type is one of a fixed set of names, never the username or exception message; the username only goes
+    // to the audit trail
+    private void recordFailure(String type, String username, String clientIp) {
+        countFailure(type);
+        auditEventPublisher.publish(AuditEventType.LOGIN_FAILURE, username, clientIp, type);
+    }
+
+    // Throttled and hashing-rejected attempts arrive in floods and never reached a password check, so they are only
+    // counted; auditing each one would fill the audit ring and drop the events that matter
+    private void countFailure(String type) {
+        Counter.builder("auth.failures")
+            .description("Failed login attempts by failure type")
+            .tag("type", type)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void observeBookkeeping(Runnable bookkeeping) {
+        Observation.createNotStarted("auth.handler.bookkeeping", observationRegistry)
+            .lowCardinalityKeyValue("handler", "failure")
+            .observe(bookkeeping);
+    }
 
-            if (attempts >= MAX_FAILED_ATTEMPTS) {
-                user.setAccountNonLocked(false);
-                logger.warn("Account locked for user: {} after {} failed attempts", username, attempts);
-            }
+    private void handleFailedLoginAttempt(String username, String clientIp) {
+        int attempts = loginAttemptService.loginFailed(username, clientIp);
+        loginBookkeepingWriter.loginFailed(username, attempts);
 
-            userRepository.save(user);
-        });
+        // Attempts are counted in memory; only the threshold crossing is written synchronously
+        if (attempts != loginAttemptService.getMaxAttemptsPerUser()) {
+            return;
+        }
+
+        if (userRepository.lockByUsername(username, LocalDateTime.now()) > 0) {
+            userDetailsCache.evict(username);
+            auditEventPublisher.publish(AuditEventType.ACCOUNT_LOCKED, username, clientIp,
+                "after " + attempts + " failed attempts");
+            logger.warn("Account locked for user: {} after {} failed attempts", username, attempts);
+        }
     }
 }
\ No newline at end of file
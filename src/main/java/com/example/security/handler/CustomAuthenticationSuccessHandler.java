@@ -1,7 +1,11 @@
 package com.example.security.handler;
 
-import com.example.security.model.User;
-import com.example.security.repository.UserRepository;
+import com.example.security.audit.AuditEventPublisher;
+import com.example.security.audit.AuditEventType;
+import com.example.security.service.LoginAttemptService;
+import com.example.security.service.LoginBookkeepingWriter;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,7 +20,6 @@ import org.springframework.security.web.authentication.AuthenticationSuccessHand
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Component
@@ -24,10 +27,19 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
 
     private static final Logger logger = LoggerFactory.getLogger(CustomAuthenticationSuccessHandler.class);
     private final RedirectStrategy redirectStrategy = new DefaultRedirectStrategy();
-    private final UserRepository userRepository;
+    private final LoginAttemptService loginAttemptService;
+    private final LoginBookkeepingWriter loginBookkeepingWriter;
+    private final ObservationRegistry observationRegistry;
+    private final AuditEventPublisher auditEventPublisher;
 
-    public CustomAuthenticationSuccessHandler(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomAuthenticationSuccessHandler(LoginAttemptService loginAttemptService,
+                                              LoginBookkeepingWriter loginBookkeepingWriter,
+                                              ObservationRegistry observationRegistry,
+                                              AuditEventPublisher auditEventPublisher) {
+        this.loginAttemptService = loginAttemptService;
+        this.loginBookkeepingWriter = loginBookkeepingWriter;
+        this.observationRegistry = observationRegistry;
+        this.auditEventPublisher = auditEventPublisher;
     }
 
     @Override
@@ -35,14 +47,16 @@ public class CustomAuthenticationSuccessHandler implements AuthenticationSuccess
                                        Authentication authentication) throws IOException, ServletException {
         
         String username = authentication.getName();
-        logger.info("User logged in successfully: {}", username);
+        logger.debug("User logged in successfully: {}", username);
+        auditEventPublisher.publish(AuditEventType.LOGIN_SUCCESS, username, request.getRemoteAddr(), null);
+        Observation.createNotStarted("auth.handler.bookkeeping", observationRegistry)
+            .lowCardinalityKeyValue("handler", "success")
+            .observe(() -> {
+                loginAttemptService.loginSucceeded(username);
 
-        // Update last login time and reset failed attempts
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setLastLogin(LocalDateTime.now());
-            user.setFailedLoginAttempts(0);
-            userRepository.save(user);
-        });
+                // Update last login time and reset failed attempts (written behind, off the request path)
+                loginBookkeepingWriter.loginSucceeded(username);
+            });
 
         // Set user info in session
         HttpSession session = request.getSession();
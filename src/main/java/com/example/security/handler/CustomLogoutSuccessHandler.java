@@ -1,5 +1,7 @@
 package com.example.security.handler;
 
+import com.example.security.audit.AuditEventPublisher;
+import com.example.security.audit.AuditEventType;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -15,13 +17,19 @@ import java.io.IOException;
 public class CustomLogoutSuccessHandler implements LogoutSuccessHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomLogoutSuccessHandler.class);
+    private final AuditEventPublisher auditEventPublisher;
+
+    public CustomLogoutSuccessHandler(AuditEventPublisher auditEventPublisher) {
+        this.auditEventPublisher = auditEventPublisher;
+    }
 
     @Override
     public void onLogoutSuccess(HttpServletRequest request, HttpServletResponse response,
                                Authentication authentication) throws IOException, ServletException {
         
         if (authentication != null) {
-            logger.info("User logged out successfully: {}", authentication.getName());
+            logger.debug("User logged out successfully: {}", authentication.getName());
+            auditEventPublisher.publish(AuditEventType.LOGOUT, authentication.getName(), request.getRemoteAddr(), null);
         }
 
         // Invalidate session
@@ -0,0 +1,75 @@
+package com.example.security.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// HMAC keys as "kid:base64-secret" entries; the first one signs, all of them verify
+public class JwtKeyRing {
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final OctetSequenceKey signingKey;
+    private final JWKSet verificationKeys;
+
+    public JwtKeyRing(List<String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("At least one JWT signing key must be configured");
+        }
+
+        List<JWK> keys = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("JWT key must be formatted as kid:base64-secret");
+            }
+            String keyId = entry.substring(0, separator).trim();
+            byte[] secret = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            if (secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("JWT key " + keyId + " must be at least 256 bits");
+            }
+            keys.add(new OctetSequenceKey.Builder(secret)
+                .keyID(keyId)
+                .algorithm(JWSAlgorithm.HS256)
+                .keyUse(KeyUse.SIGNATURE)
+                .build());
+        }
+
+        this.signingKey = (OctetSequenceKey) keys.get(0);
+        this.verificationKeys = new JWKSet(keys);
+    }
+
+    public OctetSequenceKey getSigningKey() {
+        return signingKey;
+    }
+
+    public JWKSet getVerificationKeys() {
+        return verificationKeys;
+    }
+
+    // Shared by the servlet /api chain and the reactive edge, so both accept exactly the same tokens
+    public JwtDecoder newDecoder(String issuer) {
+        // Verification key is picked by the token's kid, so retired keys keep working until removed
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.HS256,
+            new ImmutableJWKSet<>(verificationKeys)));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+}
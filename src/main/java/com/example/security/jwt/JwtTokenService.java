@@ -0,0 +1,55 @@
+package com.example.security.jwt;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public class JwtTokenService {
+
+    public static final String ROLES_CLAIM = "roles";
+
+    private final JwtEncoder encoder;
+    private final String keyId;
+    private final String issuer;
+    private final Duration ttl;
+
+    public JwtTokenService(JwtEncoder encoder, String keyId, String issuer, Duration ttl) {
+        this.encoder = encoder;
+        this.keyId = keyId;
+        this.issuer = issuer;
+        this.ttl = ttl;
+    }
+
+    public String issueToken(Authentication authentication) {
+        Instant now = Instant.now();
+
+        // Only roles go into the token; privileges are expanded locally when it is presented
+        List<String> roles = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith("ROLE_"))
+            .toList();
+
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuer(issuer)
+            .subject(authentication.getName())
+            .issuedAt(now)
+            .expiresAt(now.plus(ttl))
+            .claim(ROLES_CLAIM, roles)
+            .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).keyId(keyId).build();
+
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
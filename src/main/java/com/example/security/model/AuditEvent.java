@@ -0,0 +1,63 @@
+package com.example.security.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Append-only: rows are batch-inserted over JDBC by AuditEventPublisher and never updated; mapped for the schema
+// and for queries
+@Entity
+@Table(name = "audit_events", indexes = {
+    @Index(name = "idx_audit_events_occurred_at", columnList = "occurred_at"),
+    @Index(name = "idx_audit_events_principal", columnList = "principal"),
+    @Index(name = "idx_audit_events_type", columnList = "type")
+})
+public class AuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(length = 100)
+    private String principal;
+
+    @Column(name = "remote_address", length = 45)
+    private String remoteAddress;
+
+    @Column(length = 255)
+    private String detail;
+
+    // Constructors
+    protected AuditEvent() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
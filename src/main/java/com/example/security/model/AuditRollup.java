@@ -0,0 +1,46 @@
+package com.example.security.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Events per type and minute, incremented by AuditEventPublisher with every batch it writes
+@Entity
+@Table(name = "audit_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_audit_rollups_minute_type", columnNames = {"minute_start", "type"})
+})
+public class AuditRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "minute_start", nullable = false)
+    private LocalDateTime minute;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+
+    // Constructors
+    protected AuditRollup() {}
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getMinute() {
+        return minute;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+}
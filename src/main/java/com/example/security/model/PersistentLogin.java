@@ -0,0 +1,90 @@
+package com.example.security.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "persistent_logins", indexes = {
+    @Index(name = "idx_persistent_logins_username", columnList = "username"),
+    @Index(name = "idx_persistent_logins_last_used", columnList = "last_used")
+})
+public class PersistentLogin implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String series;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(nullable = false, length = 64)
+    private String token;
+
+    @Column(name = "last_used", nullable = false)
+    private LocalDateTime lastUsed;
+
+    // Series are generated client-side, so tell Spring Data to insert rather than merge
+    @Transient
+    private boolean isNew = true;
+
+    // Constructors
+    public PersistentLogin() {}
+
+    public PersistentLogin(String series, String username, String token, LocalDateTime lastUsed) {
+        this.series = series;
+        this.username = username;
+        this.token = token;
+        this.lastUsed = lastUsed;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return series;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters and Setters
+    public String getSeries() {
+        return series;
+    }
+
+    public void setSeries(String series) {
+        this.series = series;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public LocalDateTime getLastUsed() {
+        return lastUsed;
+    }
+
+    public void setLastUsed(LocalDateTime lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+}
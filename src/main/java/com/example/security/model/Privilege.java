@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(RoleDefinitionListener.class)
 @Table(name = "privileges")
 public class Privilege {
 
@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(RoleDefinitionListener.class)
 @Table(name = "roles")
 public class Role {
 
@@ -22,7 +23,7 @@ public class Role {
     private Set<User> users = new HashSet<>();
 
   //  @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
-    @ManyToMany(fetch = FetchType.EAGER, cascade = { CascadeType.MERGE})
+    @ManyToMany(fetch = FetchType.LAZY, cascade = { CascadeType.MERGE})
     @JoinTable(
         name = "role_privileges",
         joinColumns = @JoinColumn(name = "role_id"),
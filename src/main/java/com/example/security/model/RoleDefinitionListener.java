@@ -0,0 +1,27 @@
+package com.example.security.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Instantiated by Hibernate through Spring's bean container
+public class RoleDefinitionListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RoleDefinitionListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Role role) {
+            eventPublisher.publishEvent(new RoleDefinitionsChangedEvent("Role", role.getId()));
+        } else if (entity instanceof Privilege privilege) {
+            eventPublisher.publishEvent(new RoleDefinitionsChangedEvent("Privilege", privilege.getId()));
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.example.security.model;
+
+public record RoleDefinitionsChangedEvent(String entity, Long id) {}
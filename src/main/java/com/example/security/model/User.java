@@ -6,14 +6,22 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@NamedEntityGraph(name = User.AUTHORITIES_GRAPH, attributeNodes = @NamedAttributeNode("roles"))
 @Table(name = "users", indexes = {
     @Index(name = "idx_username", columnList = "username"),
     @Index(name = "idx_email", columnList = "email")
 })
 public class User {
 
+    public static final String AUTHORITIES_GRAPH = "User.authorities";
+    public static final String ID_SEQUENCE = "users_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence ids let Hibernate batch user and user_roles inserts; 50 ids are reserved per round trip.
+    // Databases created before the switch from IDENTITY are realigned at startup by UserIdSequenceAligner.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 50)
@@ -56,7 +64,7 @@ public class User {
     private LocalDateTime updatedAt;
 
     //@ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
-    @ManyToMany(fetch = FetchType.EAGER, cascade = { CascadeType.MERGE})
+    @ManyToMany(fetch = FetchType.LAZY, cascade = { CascadeType.MERGE})
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -205,13 +213,12 @@ public class User {
         this.roles = roles;
     }
 
+    // Only the owning side is updated; touching role.getUsers() would load the whole membership
     public void addRole(Role role) {
         this.roles.add(role);
-        role.getUsers().add(this);
     }
 
     public void removeRole(Role role) {
         this.roles.remove(role);
-        role.getUsers().remove(this);
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.security.observation;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free histogram with one bucket per power of two: bucket b counts values in [2^(b-1), 2^b). Recording is
+// a leading-zero count and a few striped adds, so concurrent requests never contend on a shared cell.
+final class Log2Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Log2Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long value) {
+        long clamped = Math.max(0, value);
+        buckets[BUCKETS - Long.numberOfLeadingZeros(clamped)].increment();
+        total.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long observed = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            observed += counts[i];
+        }
+        long largest = max.get();
+        return new Snapshot(observed, total.sum(), largest,
+            percentile(counts, observed, 0.50, largest),
+            percentile(counts, observed, 0.90, largest),
+            percentile(counts, observed, 0.99, largest));
+    }
+
+    // Reported as the upper bound of the bucket holding the percentile, so at most twice the true value
+    private static long percentile(long[] counts, long observed, double percentile, long largest) {
+        if (observed == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * observed);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                long upperBound = bucket == 0 ? 0 : (1L << bucket) - 1;
+                return Math.min(upperBound, largest);
+            }
+        }
+        return largest;
+    }
+
+    record Snapshot(long count, long total, long max, long p50, long p90, long p99) {
+
+        long mean() {
+            return count == 0 ? 0 : total / count;
+        }
+    }
+}
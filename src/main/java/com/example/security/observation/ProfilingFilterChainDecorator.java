@@ -0,0 +1,39 @@
+package com.example.security.observation;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import org.springframework.security.web.FilterChainProxy;
+
+import java.util.List;
+
+// Every request still runs through the framework's decorator; a sampled one only has the profiler recording
+// around it
+public class ProfilingFilterChainDecorator implements FilterChainProxy.FilterChainDecorator {
+
+    private final FilterChainProxy.FilterChainDecorator delegate;
+    private final SecurityFilterProfiler profiler;
+
+    public ProfilingFilterChainDecorator(FilterChainProxy.FilterChainDecorator delegate,
+                                         SecurityFilterProfiler profiler) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public FilterChain decorate(FilterChain original) {
+        return delegate.decorate(original);
+    }
+
+    @Override
+    public FilterChain decorate(FilterChain original, List<Filter> filters) {
+        return (request, response) -> {
+            // Forwards and error dispatches would count the same request twice
+            if (request.getDispatcherType() == DispatcherType.REQUEST && profiler.sample()) {
+                profiler.profile(request, response, original, filters, delegate);
+            } else {
+                delegate.decorate(original, filters).doFilter(request, response);
+            }
+        };
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.security.observation;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.ObservationFilterChainDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Times a sample of requests through the security filter chain and keeps, per URL group and filter, a histogram
+// of each filter's exclusive time: its own work on the way in plus on the way out, excluding the filters and
+// servlet it calls. Unsampled requests pay for one random draw, plus a thread-local lookup per filter event when
+// observations are on.
+public class SecurityFilterProfiler {
+
+    public enum UrlGroup {
+        PUBLIC,
+        STATIC,
+        API,
+        DASHBOARDS
+    }
+
+    private static final List<String> STATIC_PREFIXES =
+        List.of("/css/", "/js/", "/images/", "/webjars/", "/resources/", "/static/", "/favicon.ico");
+    private static final List<String> DASHBOARD_PREFIXES =
+        List.of("/admin/", "/manager/", "/user/", "/dashboard/", "/profile/");
+
+    private final double sampleRate;
+    private final ThreadLocal<Recording> current = new ThreadLocal<>();
+    private volatile Map<UrlGroup, GroupTimings> groups = new ConcurrentHashMap<>();
+
+    public SecurityFilterProfiler(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public boolean sample() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    // Runs the request through the framework's own chain, so observations and their timers are kept. The filters
+    // report each hand-over through filterEntered and filterExited: from the observation decorator's events when
+    // there is one, otherwise from a thin wrapper around each filter, which then has no names to disturb.
+    public void profile(ServletRequest request, ServletResponse response, FilterChain original, List<Filter> filters,
+                        FilterChainProxy.FilterChainDecorator framework) throws IOException, ServletException {
+        Recording recording = new Recording(filters.size());
+        List<Filter> chainFilters = framework instanceof ObservationFilterChainDecorator
+            ? filters
+            : filters.stream().map(this::reporting).toList();
+        current.set(recording);
+        long started = System.nanoTime();
+        recording.mark = started;
+        try {
+            framework.decorate(recording.servlet(original), chainFilters).doFilter(request, response);
+        } finally {
+            current.remove();
+            long elapsed = System.nanoTime() - started;
+            GroupTimings timings = groups.computeIfAbsent(group(request), group -> new GroupTimings());
+            timings.chain.record(elapsed - recording.servletNanos);
+            for (int i = 0; i < recording.entered; i++) {
+                Filter filter = filters.get(i);
+                int position = i;
+                timings.filters.computeIfAbsent(filter.getClass().getName(),
+                        name -> new FilterTimings(filter.getClass().getSimpleName(), position))
+                    .histogram().record(recording.exclusiveNanos[i]);
+            }
+        }
+    }
+
+    public void filterEntered() {
+        Recording recording = current.get();
+        if (recording != null) {
+            recording.enter();
+        }
+    }
+
+    public void filterExited() {
+        Recording recording = current.get();
+        if (recording != null) {
+            recording.exit();
+        }
+    }
+
+    public Map<String, GroupReport> report() {
+        Map<String, GroupReport> report = new LinkedHashMap<>();
+        for (UrlGroup group : UrlGroup.values()) {
+            GroupTimings timings = groups.get(group);
+            if (timings == null) {
+                continue;
+            }
+            List<FilterReport> filters = new ArrayList<>();
+            timings.filters.values().stream()
+                .sorted(Comparator.comparingInt(FilterTimings::position))
+                .forEach(filter -> filters.add(FilterReport.of(filter.name(), filter.position(),
+                    filter.histogram().snapshot())));
+            Log2Histogram.Snapshot chain = timings.chain.snapshot();
+            report.put(group.name().toLowerCase(Locale.ROOT), new GroupReport(chain.count(), chain.mean(), chain.p50(),
+                chain.p99(), chain.max(), filters));
+        }
+        return report;
+    }
+
+    public void reset() {
+        groups = new ConcurrentHashMap<>();
+    }
+
+    private Filter reporting(Filter filter) {
+        return (request, response, chain) -> {
+            filterEntered();
+            try {
+                filter.doFilter(request, response, chain);
+            } finally {
+                filterExited();
+            }
+        };
+    }
+
+    static UrlGroup group(ServletRequest request) {
+        HttpServletRequest http = (HttpServletRequest) request;
+        String path = http.getRequestURI().substring(http.getContextPath().length());
+        if (path.startsWith("/api/")) {
+            return UrlGroup.API;
+        }
+        for (String prefix : STATIC_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return UrlGroup.STATIC;
+            }
+        }
+        for (String prefix : DASHBOARD_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return UrlGroup.DASHBOARDS;
+            }
+        }
+        return UrlGroup.PUBLIC;
+    }
+
+    // Filters are entered in order and return innermost first, so the open ones are always 0..depth-1. Every
+    // hand-over closes the current interval: entering the next filter ends the caller's inbound work, and returning
+    // ends the callee's outbound work. A forward made by the servlet runs the chain again; it is servlet time here.
+    private static final class Recording {
+
+        private final long[] exclusiveNanos;
+        private int entered;
+        private int depth;
+        private boolean inServlet;
+        private long servletNanos;
+        private long mark;
+
+        Recording(int filters) {
+            this.exclusiveNanos = new long[filters];
+        }
+
+        void enter() {
+            if (inServlet || entered == exclusiveNanos.length) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (depth > 0) {
+                exclusiveNanos[depth - 1] += now - mark;
+            }
+            entered++;
+            depth++;
+            mark = now;
+        }
+
+        void exit() {
+            if (inServlet || depth == 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            exclusiveNanos[--depth] += now - mark;
+            mark = now;
+        }
+
+        FilterChain servlet(FilterChain original) {
+            return (request, response) -> {
+                long now = System.nanoTime();
+                if (depth > 0) {
+                    exclusiveNanos[depth - 1] += now - mark;
+                }
+                inServlet = true;
+                try {
+                    original.doFilter(request, response);
+                } finally {
+                    inServlet = false;
+                    mark = System.nanoTime();
+                    servletNanos += mark - now;
+                }
+            };
+        }
+    }
+
+    private static final class GroupTimings {
+
+        private final Log2Histogram chain = new Log2Histogram();
+        private final Map<String, FilterTimings> filters = new ConcurrentHashMap<>();
+    }
+
+    private record FilterTimings(String name, int position, Log2Histogram histogram) {
+
+        FilterTimings(String name, int position) {
+            this(name, position, new Log2Histogram());
+        }
+    }
+
+    public record GroupReport(long sampledRequests, long chainMeanNanos, long chainP50Nanos, long chainP99Nanos,
+                              long chainMaxNanos, List<FilterReport> filters) {}
+
+    public record FilterReport(String filter, int position, long count, long meanNanos, long p50Nanos,
+                               long p90Nanos, long p99Nanos, long maxNanos) {
+
+        static FilterReport of(String filter, int position, Log2Histogram.Snapshot snapshot) {
+            return new FilterReport(filter, position, snapshot.count(), snapshot.mean(), snapshot.p50(),
+                snapshot.p90(), snapshot.p99(), snapshot.max());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.security.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+// Feeds the profiler the same "<filter>.before" and "<filter>.after" events SecurityFilterTimingHandler uses, so a
+// sampled request can stay on the observed chain; the profiler ignores them for requests it is not recording
+public class SecurityFilterProfilerHandler implements ObservationHandler<Observation.Context> {
+
+    private static final String FILTER_CHAIN_OBSERVATION = "spring.security.filterchains";
+
+    private final SecurityFilterProfiler profiler;
+
+    public SecurityFilterProfilerHandler(SecurityFilterProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    @Override
+    public void onEvent(Observation.Event event, Observation.Context context) {
+        if (!FILTER_CHAIN_OBSERVATION.equals(context.getName())) {
+            return;
+        }
+        String name = event.getName();
+        if (name.endsWith(".before")) {
+            profiler.filterEntered();
+        } else if (name.endsWith(".after")) {
+            profiler.filterExited();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.security.observation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Spring Security records a "<filter>.before" event as each filter is entered and a "<filter>.after" event as it
+// returns. The gap between consecutive events is time spent in one filter's own code, so each event closes an
+// interval and charges it to a timer per filter. Filter names come from a fixed set, which keeps tags bounded.
+@Component
+public class SecurityFilterTimingHandler implements ObservationHandler<Observation.Context> {
+
+    private static final String FILTER_CHAIN_OBSERVATION = "spring.security.filterchains";
+    private static final String BEFORE = "before";
+    private static final String AFTER = "after";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SecurityFilterTimingHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // The name is only known once the observation starts, so contexts are filtered in onStart instead
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        if (FILTER_CHAIN_OBSERVATION.equals(context.getName())) {
+            context.put(Interval.class, new Interval(System.nanoTime()));
+        }
+    }
+
+    @Override
+    public void onEvent(Observation.Event event, Observation.Context context) {
+        Interval interval = context.get(Interval.class);
+        if (interval == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        String name = event.getName();
+        if (name.endsWith("." + BEFORE)) {
+            // Entering a filter ends the previous filter's work on the way in
+            if (interval.filter != null) {
+                record(interval.filter, BEFORE, now - interval.since);
+            }
+            interval.filter = name.substring(0, name.length() - BEFORE.length() - 1);
+        } else if (name.endsWith("." + AFTER)) {
+            // Filters return innermost first, so the gap belongs to the filter that just returned
+            record(name.substring(0, name.length() - AFTER.length() - 1), AFTER, now - interval.since);
+            interval.filter = null;
+        }
+        interval.since = now;
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        // The last filter entered either handed over to the servlet or answered the request itself
+        Interval interval = context.get(Interval.class);
+        if (interval != null && interval.filter != null) {
+            record(interval.filter, BEFORE, System.nanoTime() - interval.since);
+        }
+    }
+
+    private void record(String filter, String section, long nanos) {
+        timers.computeIfAbsent(filter + '/' + section, key -> Timer.builder("security.filter")
+                .description("Time spent in a security filter's own code, excluding the filters it calls")
+                .tag("filter", filter)
+                .tag("section", section)
+                .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class Interval {
+
+        private String filter;
+        private long since;
+
+        Interval(long since) {
+            this.since = since;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.security.observation;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+// GET /actuator/securityfilters reports per-filter exclusive time by URL group; DELETE starts a fresh profile
+@Endpoint(id = "securityfilters")
+public class SecurityFiltersEndpoint {
+
+    private final SecurityFilterProfiler profiler;
+
+    public SecurityFiltersEndpoint(SecurityFilterProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public ProfileReport securityFilters() {
+        return new ProfileReport(profiler.getSampleRate(), profiler.report());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+
+    public record ProfileReport(double sampleRate, Map<String, SecurityFilterProfiler.GroupReport> groups) {}
+}
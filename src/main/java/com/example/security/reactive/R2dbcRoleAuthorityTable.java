@@ -0,0 +1,97 @@
+package com.example.security.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Reactive counterpart of RoleAuthorityTable: tokens carry only roles, and each expands to itself plus its
+// privileges. The edge runs in its own process and never sees the servlet app's change events, so the table is
+// simply reloaded, with one query, once it is older than the refresh interval.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class R2dbcRoleAuthorityTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(R2dbcRoleAuthorityTable.class);
+
+    private static final String ROLES_SQL = """
+        SELECT r.name AS role_name, p.name AS privilege_name
+        FROM roles r
+        LEFT JOIN role_privileges rp ON rp.role_id = r.id
+        LEFT JOIN privileges p ON p.id = rp.privilege_id
+        """;
+
+    private final DatabaseClient databaseClient;
+    private final ConcurrentMap<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+    private final Mono<Map<String, List<GrantedAuthority>>> table;
+
+    public R2dbcRoleAuthorityTable(DatabaseClient databaseClient,
+                                   @Value("${app.security.role-authorities.refresh-interval:1m}")
+                                   Duration refreshInterval) {
+        this.databaseClient = databaseClient;
+        // A failed load is not cached, so the next request tries again
+        this.table = load().cache(loaded -> refreshInterval, error -> Duration.ZERO, () -> Duration.ZERO);
+    }
+
+    public Flux<GrantedAuthority> authoritiesFor(Collection<String> roleNames) {
+        return table.flatMapIterable(byRole -> {
+            Set<GrantedAuthority> granted = new LinkedHashSet<>();
+            for (String roleName : roleNames) {
+                List<GrantedAuthority> expanded = byRole.get(roleName);
+                if (expanded != null) {
+                    granted.addAll(expanded);
+                } else {
+                    granted.add(authority(roleName));
+                }
+            }
+            return granted;
+        });
+    }
+
+    private Mono<Map<String, List<GrantedAuthority>>> load() {
+        return databaseClient.sql(ROLES_SQL)
+            .map((row, metadata) -> new RoleRow(row.get("role_name", String.class),
+                row.get("privilege_name", String.class)))
+            .all()
+            .collectList()
+            .map(rows -> {
+                Map<String, List<GrantedAuthority>> byRole = new HashMap<>();
+                for (RoleRow row : rows) {
+                    List<GrantedAuthority> expanded = byRole.computeIfAbsent(row.roleName(), name -> {
+                        List<GrantedAuthority> list = new ArrayList<>();
+                        list.add(authority(name));
+                        return list;
+                    });
+                    if (row.privilegeName() != null) {
+                        expanded.add(authority(row.privilegeName()));
+                    }
+                }
+                byRole.replaceAll((name, expanded) -> List.copyOf(expanded));
+                logger.debug("Loaded authorities for {} roles", byRole.size());
+                return Map.copyOf(byRole);
+            });
+    }
+
+    private GrantedAuthority authority(String name) {
+        return authorities.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+
+    private record RoleRow(String roleName, String privilegeName) {}
+}
@@ -0,0 +1,110 @@
+package com.example.security.reactive;
+
+import com.example.security.dto.UserSummary;
+import com.example.security.dto.UserSummaryWindow;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// WebFlux port of ApiController; user listing is keyset-only since offset pages need a count query per page
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveApiController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final String USERS_AFTER_SQL = """
+        SELECT id, username, email, first_name, last_name, enabled, account_non_locked, last_login, created_at
+        FROM users
+        WHERE id > :after
+        ORDER BY id
+        LIMIT :limit
+        """;
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveApiController(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @GetMapping("/public/info")
+    public Mono<Map<String, String>> publicInfo() {
+        return Mono.just(Map.of(
+                "message", "This is public information",
+                "timestamp", LocalDateTime.now().toString()
+        ));
+    }
+
+    @GetMapping("/user/data")
+    @PreAuthorize("hasAnyRole('USER', 'MANAGER', 'ADMIN')")
+    public Mono<Map<String, Object>> userData(Authentication authentication) {
+        return Mono.just(Map.of(
+                "message", "User data",
+                "user", authentication.getName(),
+                "roles", authentication.getAuthorities()
+        ));
+    }
+
+    @GetMapping("/manager/data")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public Mono<Map<String, Object>> managerData(Authentication authentication) {
+        return Mono.just(Map.of(
+                "message", "Manager data",
+                "user", authentication.getName(),
+                "roles", authentication.getAuthorities()
+        ));
+    }
+
+    @GetMapping("/admin/data")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<Map<String, Object>> adminData(Authentication authentication) {
+        return Mono.just(Map.of(
+                "message", "Admin data",
+                "user", authentication.getName(),
+                "roles", authentication.getAuthorities(),
+                "timestamp", LocalDateTime.now()
+        ));
+    }
+
+    @GetMapping("/admin/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<UserSummaryWindow> listUsers(@RequestParam(defaultValue = "0") long after,
+                                             @RequestParam(defaultValue = "20") int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to learn whether another page exists
+        return databaseClient.sql(USERS_AFTER_SQL)
+            .bind("after", after)
+            .bind("limit", limit + 1)
+            .map((row, metadata) -> new UserSummary(
+                row.get("id", Long.class),
+                row.get("username", String.class),
+                row.get("email", String.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                Boolean.TRUE.equals(row.get("enabled", Boolean.class)),
+                Boolean.TRUE.equals(row.get("account_non_locked", Boolean.class)),
+                row.get("last_login", LocalDateTime.class),
+                row.get("created_at", LocalDateTime.class)))
+            .all()
+            .collectList()
+            .map(rows -> {
+                if (rows.size() <= limit) {
+                    return new UserSummaryWindow(rows, null);
+                }
+                List<UserSummary> content = rows.subList(0, limit);
+                return new UserSummaryWindow(content, content.get(limit - 1).id());
+            });
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.security.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.session.SessionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+// API-only edge node: Netty event loops, R2DBC user lookups, no servlet container, JPA or HTTP sessions.
+// Only this package is scanned; the condition keeps the servlet app's component scan from picking it up.
+// mvn spring-boot:run -Dspring-boot.run.main-class=com.example.security.reactive.ReactiveEdgeApplication
+@SpringBootApplication(exclude = {
+    DataSourceAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    JpaRepositoriesAutoConfiguration.class,
+    SessionAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEdgeApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveEdgeApplication.class)
+            .web(WebApplicationType.REACTIVE)
+            .profiles("reactive")
+            .run(args);
+    }
+
+    // Tomcat is on the classpath for the servlet app and would otherwise be picked as the reactive server too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.security.reactive;
+
+import com.example.security.authz.UrlRule;
+import com.example.security.authz.UrlRules;
+import com.example.security.jwt.CachingJwtDecoder;
+import com.example.security.jwt.JwtKeyRing;
+import com.example.security.jwt.JwtTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// WebFlux mirror of the servlet /api chain: same URL rules and the same bearer tokens, issued by the servlet app's
+// POST /api/auth/token. Verifying a token is an HMAC (cached per token), so no request does BCrypt here.
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Value("${app.security.jwt.keys:}")
+    private List<String> keys;
+
+    @Value("${app.security.jwt.issuer:spring-security-demo}")
+    private String issuer;
+
+    @Value("${app.security.jwt.verified-cache.maximum-size:100000}")
+    private long verifiedCacheSize;
+
+    @Bean
+    public SecurityWebFilterChain apiSecurityWebFilterChain(ServerHttpSecurity http,
+                                                            ReactiveJwtDecoder jwtDecoder,
+                                                            ReactiveJwtAuthenticationConverter jwtAuthenticationConverter) {
+        http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .logout(ServerHttpSecurity.LogoutSpec::disable)
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt
+                    .jwtDecoder(jwtDecoder)
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter)
+                )
+            )
+            .authorizeExchange(exchanges -> {
+                for (UrlRule rule : UrlRules.RULES) {
+                    ServerHttpSecurity.AuthorizeExchangeSpec.Access access =
+                        exchanges.pathMatchers(rule.patterns().toArray(String[]::new));
+                    switch (rule.access()) {
+                        case PERMIT_ALL -> access.permitAll();
+                        case AUTHENTICATED -> access.authenticated();
+                        case HAS_ANY_ROLE -> access.hasAnyRole(rule.roles().toArray(String[]::new));
+                    }
+                }
+                exchanges.anyExchange().authenticated();
+            });
+
+        return http.build();
+    }
+
+    @Bean
+    public JwtKeyRing jwtKeyRing() {
+        // Never fall back to a built-in key: anyone holding it could mint tokens with any role
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No JWT key is set; provide APP_SECURITY_JWT_KEYS");
+        }
+        return new JwtKeyRing(keys);
+    }
+
+    // Verification is CPU-only and short, and repeats are served from memory, so it stays on the event loop
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder(JwtKeyRing keyRing, MeterRegistry meterRegistry) {
+        JwtDecoder decoder = new CachingJwtDecoder(keyRing.newDecoder(issuer), verifiedCacheSize, meterRegistry);
+        return token -> Mono.fromCallable(() -> decoder.decode(token));
+    }
+
+    @Bean
+    public ReactiveJwtAuthenticationConverter reactiveJwtAuthenticationConverter(
+            R2dbcRoleAuthorityTable roleAuthorityTable) {
+        ReactiveJwtAuthenticationConverter converter = new ReactiveJwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            List<String> roles = jwt.getClaimAsStringList(JwtTokenService.ROLES_CLAIM);
+            return roles == null ? Flux.empty() : roleAuthorityTable.authoritiesFor(roles);
+        });
+        return converter;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.security.rememberme;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.rememberme.InvalidCookieException;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+public class CachingPersistentTokenRememberMeServices extends PersistentTokenBasedRememberMeServices {
+
+    private final PersistentLoginTokenStore tokenStore;
+
+    public CachingPersistentTokenRememberMeServices(String key,
+                                                    UserDetailsService userDetailsService,
+                                                    PersistentLoginTokenStore tokenStore) {
+        super(key, userDetailsService, tokenStore);
+        this.tokenStore = tokenStore;
+    }
+
+    @Override
+    protected UserDetails processAutoLoginCookie(String[] cookieTokens, HttpServletRequest request,
+                                                 HttpServletResponse response) {
+        // A mismatch would otherwise be reported as cookie theft and wipe all of the user's tokens
+        if (cookieTokens.length == 2) {
+            tokenStore.evictIfStale(cookieTokens[0], cookieTokens[1]);
+        }
+        return super.processAutoLoginCookie(cookieTokens, request, response);
+    }
+
+    // The default logout removes every token the user has, signing out all of their devices; only the series in
+    // this request's cookie belongs to the device that is logging out
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        cancelCookie(request, response);
+        String cookie = extractRememberMeCookie(request);
+        if (authentication == null || cookie == null || cookie.isEmpty()) {
+            return;
+        }
+        try {
+            String[] cookieTokens = decodeCookie(cookie);
+            if (cookieTokens.length == 2) {
+                tokenStore.removeSeries(authentication.getName(), cookieTokens[0]);
+            }
+        } catch (InvalidCookieException e) {
+            logger.debug("Ignoring invalid remember-me cookie on logout: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.security.rememberme;
+
+import com.example.security.dto.RememberMeDevice;
+import com.example.security.model.PersistentLogin;
+import com.example.security.repository.PersistentLoginRepository;
+import com.example.security.service.UnpinnedCacheLoader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.security.remember-me.mode", havingValue = "persistent", matchIfMissing = true)
+public class PersistentLoginTokenStore implements PersistentTokenRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentLoginTokenStore.class);
+    private static final String CACHE_NAME = "rememberMeSeries";
+
+    private final PersistentLoginRepository persistentLoginRepository;
+    private final Cache<String, PersistentRememberMeToken> cache;
+    private final UnpinnedCacheLoader<String, PersistentRememberMeToken> loader;
+    private final Duration validity;
+    private final int purgeBatchSize;
+
+    public PersistentLoginTokenStore(PersistentLoginRepository persistentLoginRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.security.remember-me.validity:24h}") Duration validity,
+                                     @Value("${app.security.remember-me.cache.maximum-size:10000}") long cacheSize,
+                                     @Value("${app.security.remember-me.cache.ttl:10m}") Duration cacheTtl,
+                                     @Value("${app.security.remember-me.purge-batch-size:1000}") int purgeBatchSize) {
+        this.persistentLoginRepository = persistentLoginRepository;
+        this.validity = validity;
+        this.purgeBatchSize = purgeBatchSize;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(cacheTtl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.loader = new UnpinnedCacheLoader<>(cache);
+    }
+
+    @Override
+    public void createNewToken(PersistentRememberMeToken token) {
+        persistentLoginRepository.save(new PersistentLogin(token.getSeries(), token.getUsername(),
+            token.getTokenValue(), toLocalDateTime(token.getDate())));
+        cache.put(token.getSeries(), token);
+    }
+
+    @Override
+    public void updateToken(String series, String tokenValue, Date lastUsed) {
+        int updated = persistentLoginRepository.updateToken(series, tokenValue, toLocalDateTime(lastUsed));
+        if (updated == 0) {
+            loader.invalidate(series);
+            return;
+        }
+        cache.asMap().computeIfPresent(series, (key, cached) ->
+            new PersistentRememberMeToken(cached.getUsername(), series, tokenValue, lastUsed));
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        // Misses are not cached, so unknown series always fall through to the primary key lookup
+        return loader.get(seriesId, series -> persistentLoginRepository.findById(series)
+            .map(login -> new PersistentRememberMeToken(login.getUsername(), login.getSeries(),
+                login.getToken(), Timestamp.valueOf(login.getLastUsed())))
+            .orElse(null));
+    }
+
+    @Override
+    public void removeUserTokens(String username) {
+        loader.invalidateAll(persistentLoginRepository.findSeriesByUsername(username));
+        int removed = persistentLoginRepository.deleteByUsername(username);
+        logger.debug("Removed {} remember-me tokens for user: {}", removed, username);
+    }
+
+    public List<RememberMeDevice> findDevices(String username) {
+        return persistentLoginRepository.findDevicesByUsername(username);
+    }
+
+    // Signs out a single device; the username check keeps one user from revoking another's series
+    public boolean removeSeries(String username, String series) {
+        int removed = persistentLoginRepository.deleteBySeriesAndUsername(series, username);
+        loader.invalidate(series);
+        logger.debug("Removed {} remember-me tokens for user {} on one device", removed, username);
+        return removed > 0;
+    }
+
+    // Another node may have rotated the token; re-read it rather than treating the cookie as stolen
+    public void evictIfStale(String series, String presentedTokenValue) {
+        PersistentRememberMeToken cached = cache.getIfPresent(series);
+        if (cached != null && !cached.getTokenValue().equals(presentedTokenValue)) {
+            loader.invalidate(series);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.remember-me.purge-interval:1h}",
+               initialDelayString = "${app.security.remember-me.purge-interval:1h}")
+    public void purgeExpiredTokens() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(validity);
+        PageRequest batch = PageRequest.ofSize(purgeBatchSize);
+        int purged = 0;
+
+        // Small batches keep each delete short and avoid locking the whole table
+        List<String> expired;
+        do {
+            expired = persistentLoginRepository.findSeriesLastUsedBefore(cutoff, batch);
+            if (!expired.isEmpty()) {
+                purged += persistentLoginRepository.deleteBySeriesIn(expired);
+                loader.invalidateAll(expired);
+            }
+        } while (expired.size() == purgeBatchSize);
+
+        if (purged > 0) {
+            logger.info("Purged {} expired remember-me tokens", purged);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return new Timestamp(date.getTime()).toLocalDateTime();
+    }
+}
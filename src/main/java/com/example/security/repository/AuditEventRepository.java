@@ -0,0 +1,31 @@
+package com.example.security.repository;
+
+import com.example.security.dto.AuditEventSummary;
+import com.example.security.model.AuditEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> {
+
+    // Keyset over the identity column, newest first; the table only grows, so offsets would get slower over time
+    @Query("SELECT new com.example.security.dto.AuditEventSummary(" +
+           "e.id, e.occurredAt, e.type, e.principal, e.remoteAddress, e.detail) FROM AuditEvent e WHERE " +
+           "(:type IS NULL OR e.type = :type) " +
+           "AND (:principal IS NULL OR e.principal = :principal) " +
+           "AND (:from IS NULL OR e.occurredAt >= :from) " +
+           "AND (:to IS NULL OR e.occurredAt < :to) " +
+           "AND (:beforeId IS NULL OR e.id < :beforeId) ORDER BY e.id DESC")
+    List<AuditEventSummary> searchBefore(@Param("type") String type,
+                                         @Param("principal") String principal,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
+}
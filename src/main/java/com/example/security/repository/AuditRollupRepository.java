@@ -0,0 +1,22 @@
+package com.example.security.repository;
+
+import com.example.security.dto.AuditRollupSummary;
+import com.example.security.model.AuditRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AuditRollupRepository extends JpaRepository<AuditRollup, Long> {
+
+    @Query("SELECT new com.example.security.dto.AuditRollupSummary(r.minute, r.type, r.eventCount) " +
+           "FROM AuditRollup r WHERE r.minute >= :from AND r.minute < :to " +
+           "AND (:type IS NULL OR r.type = :type) ORDER BY r.minute, r.type")
+    List<AuditRollupSummary> findBetween(@Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("type") String type);
+}
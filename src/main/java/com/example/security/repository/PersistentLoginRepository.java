@@ -0,0 +1,51 @@
+package com.example.security.repository;
+
+import com.example.security.dto.RememberMeDevice;
+import com.example.security.model.PersistentLogin;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PersistentLoginRepository extends JpaRepository<PersistentLogin, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PersistentLogin p SET p.token = :token, p.lastUsed = :lastUsed WHERE p.series = :series")
+    int updateToken(@Param("series") String series,
+                    @Param("token") String token,
+                    @Param("lastUsed") LocalDateTime lastUsed);
+
+    @Query("SELECT p.series FROM PersistentLogin p WHERE p.username = :username")
+    List<String> findSeriesByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.example.security.dto.RememberMeDevice(p.series, p.lastUsed) FROM PersistentLogin p " +
+           "WHERE p.username = :username ORDER BY p.lastUsed DESC")
+    List<RememberMeDevice> findDevicesByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PersistentLogin p WHERE p.series = :series AND p.username = :username")
+    int deleteBySeriesAndUsername(@Param("series") String series, @Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PersistentLogin p WHERE p.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    @Query("SELECT p.series FROM PersistentLogin p WHERE p.lastUsed < :cutoff")
+    List<String> findSeriesLastUsedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PersistentLogin p WHERE p.series IN :series")
+    int deleteBySeriesIn(@Param("series") Collection<String> series);
+}
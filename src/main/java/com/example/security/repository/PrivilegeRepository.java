@@ -4,6 +4,8 @@ import com.example.security.model.Privilege;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,6 @@ public interface PrivilegeRepository extends JpaRepository<Privilege, Long> {
     Optional<Privilege> findByName(String name);
 
     boolean existsByName(String name);
+
+    List<Privilege> findByNameIn(Collection<String> names);
 }
\ No newline at end of file
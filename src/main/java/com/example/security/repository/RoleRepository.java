@@ -2,8 +2,12 @@ package com.example.security.repository;
 
 import com.example.security.model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,10 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
 
     boolean existsByName(String name);
+
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.privileges")
+    List<Role> findAllWithPrivileges();
+
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.privileges WHERE r.name IN :names")
+    List<Role> findWithPrivilegesByNameIn(@Param("names") Collection<String> names);
 }
\ No newline at end of file
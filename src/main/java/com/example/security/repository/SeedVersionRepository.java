@@ -0,0 +1,9 @@
+package com.example.security.repository;
+
+import com.example.security.model.SeedVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeedVersionRepository extends JpaRepository<SeedVersion, String> {
+}
@@ -1,18 +1,35 @@
 package com.example.security.repository;
 
+import com.example.security.dto.UserSummary;
 import com.example.security.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String SUMMARY_SELECT = "SELECT new com.example.security.dto.UserSummary(" +
+        "u.id, u.username, u.email, u.firstName, u.lastName, u.enabled, u.accountNonLocked, u.lastLogin, u.createdAt) ";
+
+    String SEARCH_FILTER = "FROM User u WHERE " +
+        "(:roleName IS NULL OR u.id IN (SELECT ru.id FROM User ru JOIN ru.roles r WHERE r.name = :roleName)) " +
+        "AND (:enabled IS NULL OR u.enabled = :enabled) " +
+        "AND (:locked IS NULL OR u.accountNonLocked <> :locked) " +
+        "AND (:lastLoginFrom IS NULL OR u.lastLogin >= :lastLoginFrom) " +
+        "AND (:lastLoginTo IS NULL OR u.lastLogin < :lastLoginTo) ";
+
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
@@ -21,7 +38,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.username = :username")
+    @Query("SELECT u.email FROM User u WHERE u.username = :username")
+    Optional<String> findEmailByUsername(@Param("username") String username);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @EntityGraph(User.AUTHORITIES_GRAPH)
+    @Query("SELECT u FROM User u WHERE u.username = :username")
     Optional<User> findByUsernameWithRoles(@Param("username") String username);
 
     @Query("SELECT u FROM User u WHERE u.enabled = true AND u.accountNonLocked = true")
@@ -32,4 +59,85 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName")
     List<User> findByRoleName(@Param("roleName") String roleName);
+
+    // Slim, password-free projections for listings
+
+    @Query(value = SUMMARY_SELECT + SEARCH_FILTER,
+           countQuery = "SELECT COUNT(u) " + SEARCH_FILTER)
+    Page<UserSummary> searchSummaries(@Param("roleName") String roleName,
+                                      @Param("enabled") Boolean enabled,
+                                      @Param("locked") Boolean locked,
+                                      @Param("lastLoginFrom") LocalDateTime lastLoginFrom,
+                                      @Param("lastLoginTo") LocalDateTime lastLoginTo,
+                                      Pageable pageable);
+
+    // Keyset variant for deep pages: seeks past the last seen id instead of counting an offset
+    @Query(SUMMARY_SELECT + SEARCH_FILTER + "AND (:afterId IS NULL OR u.id > :afterId) ORDER BY u.id")
+    List<UserSummary> searchSummariesAfter(@Param("roleName") String roleName,
+                                           @Param("enabled") Boolean enabled,
+                                           @Param("locked") Boolean locked,
+                                           @Param("lastLoginFrom") LocalDateTime lastLoginFrom,
+                                           @Param("lastLoginTo") LocalDateTime lastLoginTo,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "FROM User u WHERE u.enabled = true AND u.accountNonLocked = true",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.enabled = true AND u.accountNonLocked = true")
+    Page<UserSummary> findActiveUserSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "FROM User u WHERE u.lastLogin < :date",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.lastLogin < :date")
+    Page<UserSummary> findInactiveUserSummaries(@Param("date") LocalDateTime date, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "FROM User u JOIN u.roles r WHERE r.name = :roleName",
+           countQuery = "SELECT COUNT(u) FROM User u JOIN u.roles r WHERE r.name = :roleName")
+    Page<UserSummary> findSummariesByRoleName(@Param("roleName") String roleName, Pageable pageable);
+
+    // Single-statement account state changes; they skip loading the entity and its role graph
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.accountNonLocked = false, u.updatedAt = :now WHERE u.username = :username")
+    int lockByUsername(@Param("username") String username, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.accountNonLocked = false, u.updatedAt = :now " +
+           "WHERE u.username IN :usernames AND u.accountNonLocked = true")
+    int lockByUsernameIn(@Param("usernames") Collection<String> usernames, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.accountNonLocked = true, u.failedLoginAttempts = 0, u.updatedAt = :now " +
+           "WHERE u.username = :username")
+    int unlockByUsername(@Param("username") String username, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.accountNonLocked = true, u.failedLoginAttempts = 0, u.updatedAt = :now " +
+           "WHERE u.username IN :usernames AND (u.accountNonLocked = false OR u.failedLoginAttempts > 0)")
+    int unlockByUsernameIn(@Param("usernames") Collection<String> usernames, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.enabled = :enabled, u.updatedAt = :now WHERE u.username = :username")
+    int updateEnabledByUsername(@Param("username") String username,
+                                @Param("enabled") boolean enabled,
+                                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.enabled = :enabled, u.updatedAt = :now " +
+           "WHERE u.username IN :usernames AND u.enabled <> :enabled")
+    int updateEnabledByUsernameIn(@Param("usernames") Collection<String> usernames,
+                                  @Param("enabled") boolean enabled,
+                                  @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :password, u.credentialsNonExpired = true, u.updatedAt = :now " +
+           "WHERE u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username,
+                                 @Param("password") String password,
+                                 @Param("now") LocalDateTime now);
 }
\ No newline at end of file
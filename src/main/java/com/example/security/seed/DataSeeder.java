@@ -0,0 +1,235 @@
+package com.example.security.seed;
+
+import com.example.security.model.Privilege;
+import com.example.security.model.Role;
+import com.example.security.model.SeedVersion;
+import com.example.security.model.User;
+import com.example.security.repository.PrivilegeRepository;
+import com.example.security.repository.RoleRepository;
+import com.example.security.repository.SeedVersionRepository;
+import com.example.security.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Applies the declarative seed once per version: a matching version in seed_version costs one primary-key
+// lookup, otherwise privileges, roles and users are upserted by name in a single transaction
+@Component
+public class DataSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+    private static final String SEED_NAME = "default";
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+
+    private final Resource location;
+    private final ObjectMapper objectMapper;
+    private final SeedVersionRepository seedVersionRepository;
+    private final PrivilegeRepository privilegeRepository;
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final String mode;
+    private final boolean delegatingEncoding;
+
+    public DataSeeder(@Value("${app.seed.location:classpath:seed/seed.json}") Resource location,
+                      ObjectMapper objectMapper,
+                      SeedVersionRepository seedVersionRepository,
+                      PrivilegeRepository privilegeRepository,
+                      RoleRepository roleRepository,
+                      UserRepository userRepository,
+                      EntityManager entityManager,
+                      PlatformTransactionManager transactionManager,
+                      PasswordEncoder passwordEncoder,
+                      @Value("${app.seed.mode:async}") String mode,
+                      @Value("${app.security.password.encoding:bcrypt}") String encoding) {
+        this.location = location;
+        this.objectMapper = objectMapper;
+        this.seedVersionRepository = seedVersionRepository;
+        this.privilegeRepository = privilegeRepository;
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.mode = mode;
+        this.delegatingEncoding = "delegating".equalsIgnoreCase(encoding);
+    }
+
+    // Runners finish before the application reports ready, so sync mode is for tests and one-off tooling
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("sync".equalsIgnoreCase(mode)) {
+            seed();
+        }
+    }
+
+    // Readiness switches to ACCEPTING_TRAFFIC right after this listener returns, so probes never wait on the seed
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedInBackground() {
+        if ("async".equalsIgnoreCase(mode)) {
+            new CustomizableThreadFactory("data-seed-").newThread(this::seedQuietly).start();
+        }
+    }
+
+    // Returns false when the stored version is already current
+    public boolean seed() {
+        SeedDefinition seed = read();
+        int applied = seedVersionRepository.findById(SEED_NAME).map(SeedVersion::getVersion).orElse(0);
+        if (applied >= seed.version()) {
+            logger.info("Seed version {} already applied, skipping", applied);
+            return false;
+        }
+
+        long started = System.nanoTime();
+        SeedCounts counts = transactionTemplate.execute(status -> apply(seed));
+        logger.info("Applied seed version {} in {} ms: {} privileges, {} roles and {} users created",
+            seed.version(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+            counts.privileges(), counts.roles(), counts.users());
+        return true;
+    }
+
+    private void seedQuietly() {
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            // Another node may have applied the same version concurrently; the next start retries otherwise
+            logger.error("Data seeding failed", e);
+        }
+    }
+
+    private SeedDefinition read() {
+        try (InputStream in = location.getInputStream()) {
+            return objectMapper.readValue(in, SeedDefinition.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read seed from " + location, e);
+        }
+    }
+
+    private SeedCounts apply(SeedDefinition seed) {
+        Set<String> privilegeNames = new LinkedHashSet<>(seed.privileges());
+        seed.roles().forEach(role -> privilegeNames.addAll(role.privileges()));
+        Set<String> roleNames = new LinkedHashSet<>();
+        seed.roles().forEach(role -> roleNames.add(role.name()));
+        seed.users().forEach(user -> roleNames.addAll(user.roles()));
+
+        // One IN query per table instead of a findByName per item
+        Map<String, Privilege> privileges = new HashMap<>();
+        privilegeRepository.findByNameIn(privilegeNames).forEach(p -> privileges.put(p.getName(), p));
+        int createdPrivileges = 0;
+        for (String name : privilegeNames) {
+            if (!privileges.containsKey(name)) {
+                Privilege privilege = new Privilege(name);
+                entityManager.persist(privilege);
+                privileges.put(name, privilege);
+                createdPrivileges++;
+            }
+        }
+
+        Map<String, Role> roles = new HashMap<>();
+        roleRepository.findWithPrivilegesByNameIn(roleNames).forEach(r -> roles.put(r.getName(), r));
+        int createdRoles = 0;
+        for (SeedDefinition.RoleSeed roleSeed : seed.roles()) {
+            Role role = roles.get(roleSeed.name());
+            if (role == null) {
+                role = new Role(roleSeed.name());
+                entityManager.persist(role);
+                roles.put(role.getName(), role);
+                createdRoles++;
+            }
+            // Privileges are only ever added, so grants made at runtime survive a reseed
+            for (String privilegeName : roleSeed.privileges()) {
+                Privilege privilege = privileges.get(privilegeName);
+                if (!role.getPrivileges().contains(privilege)) {
+                    role.getPrivileges().add(privilege);
+                }
+            }
+        }
+
+        int createdUsers = insertMissingUsers(seed.users(), roles);
+        seedVersionRepository.save(new SeedVersion(SEED_NAME, seed.version(), LocalDateTime.now()));
+        return new SeedCounts(createdPrivileges, createdRoles, createdUsers);
+    }
+
+    private int insertMissingUsers(List<SeedDefinition.UserSeed> users, Map<String, Role> roles) {
+        if (users.isEmpty()) {
+            return 0;
+        }
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+            users.stream().map(SeedDefinition.UserSeed::username).toList()));
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+            users.stream().map(SeedDefinition.UserSeed::email).toList()));
+
+        int created = 0;
+        for (SeedDefinition.UserSeed userSeed : users) {
+            // Existing accounts are left alone; their passwords may have been changed since
+            if (takenUsernames.contains(userSeed.username()) || takenEmails.contains(userSeed.email())) {
+                continue;
+            }
+            User user = new User();
+            user.setUsername(userSeed.username());
+            user.setEmail(userSeed.email());
+            user.setPassword(passwordHash(userSeed));
+            user.setFirstName(userSeed.firstName());
+            user.setLastName(userSeed.lastName());
+            user.setEnabled(true);
+            user.setAccountNonExpired(true);
+            user.setAccountNonLocked(true);
+            user.setCredentialsNonExpired(true);
+
+            Set<Role> userRoles = new HashSet<>();
+            for (String roleName : userSeed.roles()) {
+                Role role = roles.get(roleName);
+                if (role == null) {
+                    throw new RuntimeException("Seed user " + userSeed.username() + " references unknown role: "
+                        + roleName);
+                }
+                userRoles.add(role);
+            }
+            user.setRoles(userRoles);
+            entityManager.persist(user);
+            created++;
+        }
+        return created;
+    }
+
+    private String passwordHash(SeedDefinition.UserSeed user) {
+        if (user.passwordHash() != null) {
+            // Seed hashes carry the {bcrypt} id; a plain BCrypt encoder expects the bare hash
+            return !delegatingEncoding && user.passwordHash().startsWith(BCRYPT_PREFIX)
+                ? user.passwordHash().substring(BCRYPT_PREFIX.length())
+                : user.passwordHash();
+        }
+        if (user.password() != null) {
+            return passwordEncoder.encode(user.password());
+        }
+        throw new RuntimeException("Seed user " + user.username() + " has no password or passwordHash");
+    }
+
+    private record SeedCounts(int privileges, int roles, int users) {}
+}
@@ -0,0 +1,36 @@
+package com.example.security.seed;
+
+import java.util.List;
+
+// Declarative seed file: a user carries either a precomputed passwordHash or a raw password to encode at seed time
+public record SeedDefinition(int version,
+                             List<String> privileges,
+                             List<RoleSeed> roles,
+                             List<UserSeed> users) {
+
+    public SeedDefinition {
+        privileges = privileges != null ? privileges : List.of();
+        roles = roles != null ? roles : List.of();
+        users = users != null ? users : List.of();
+    }
+
+    public record RoleSeed(String name, List<String> privileges) {
+
+        public RoleSeed {
+            privileges = privileges != null ? privileges : List.of();
+        }
+    }
+
+    public record UserSeed(String username,
+                           String email,
+                           String passwordHash,
+                           String password,
+                           String firstName,
+                           String lastName,
+                           List<String> roles) {
+
+        public UserSeed {
+            roles = roles != null ? roles : List.of();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.security.seed;
+
+import com.example.security.model.SeedVersion;
+import com.example.security.model.User;
+import com.example.security.repository.SeedVersionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.sequence.SequenceSupport;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// User ids used to come from an IDENTITY column. On a database created back then, ddl-auto creates users_seq
+// starting at 1 and the first batched insert collides with existing ids, so before anything can insert a user the
+// generator is moved past max(id). A one-off migration: once recorded in seed_version, later starts only pay for
+// the primary key lookup. Runs after the schema update and before the seed and the first request.
+@Component
+public class UserIdSequenceAligner implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdSequenceAligner.class);
+    static final String MIGRATION_NAME = "migration:" + User.ID_SEQUENCE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeedVersionRepository seedVersionRepository;
+    private final Dialect dialect;
+
+    public UserIdSequenceAligner(JdbcTemplate jdbcTemplate, SeedVersionRepository seedVersionRepository,
+                                 EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seedVersionRepository = seedVersionRepository;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        align();
+    }
+
+    void align() {
+        if (seedVersionRepository.existsById(MIGRATION_NAME)) {
+            return;
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        if (maxId != null) {
+            SequenceSupport sequences = dialect.getSequenceSupport();
+            if (sequences.supportsSequences()) {
+                advanceSequence(sequences, maxId);
+            } else {
+                advanceTable(maxId);
+            }
+        }
+        seedVersionRepository.save(new SeedVersion(MIGRATION_NAME, 1, LocalDateTime.now()));
+    }
+
+    // The pooled optimizer treats a sequence value as the top of a block of ids, so the whole block must clear
+    // max(id). Only next-value calls are portable, so the sequence is stepped forward rather than restarted; with
+    // 50 ids per step that is one call per 50 existing users, once.
+    private void advanceSequence(SequenceSupport sequences, long maxId) {
+        String nextValue = sequences.getSequenceNextValString(User.ID_SEQUENCE);
+        long next = jdbcTemplate.queryForObject(nextValue, Long.class);
+        if (next - User.ID_ALLOCATION_SIZE >= maxId) {
+            return;
+        }
+        long calls = 1;
+        while (next - User.ID_ALLOCATION_SIZE < maxId) {
+            next = jdbcTemplate.queryForObject(nextValue, Long.class);
+            calls++;
+        }
+        logger.warn("{} was behind existing user ids (max {}), advanced to {} in {} calls", User.ID_SEQUENCE,
+            maxId, next, calls);
+    }
+
+    // Without sequences (MySQL) Hibernate keeps the value in a one-row users_seq table, read the same way
+    private void advanceTable(long maxId) {
+        long restart = maxId + User.ID_ALLOCATION_SIZE + 1;
+        int updated = jdbcTemplate.update("UPDATE " + User.ID_SEQUENCE + " SET next_val = ? WHERE next_val < ?",
+            restart, restart);
+        if (updated > 0) {
+            logger.warn("{} was behind existing user ids (max {}), moved to {}", User.ID_SEQUENCE, maxId, restart);
+        }
+    }
+}
@@ -1,31 +1,56 @@
 package com.example.security.service;
 
+import com.example.security.model.Role;
 import com.example.security.model.User;
 import com.example.security.repository.UserRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final RoleAuthorityTable roleAuthorityTable;
+    private final ObservationRegistry observationRegistry;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    UserDetailsCache userDetailsCache,
+                                    RoleAuthorityTable roleAuthorityTable,
+                                    ObservationRegistry observationRegistry) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.roleAuthorityTable = roleAuthorityTable;
+        this.observationRegistry = observationRegistry;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        // Tagged database only when the cache misses; the query then runs inside this observation
+        Observation observation = Observation.createNotStarted("auth.user.lookup", observationRegistry)
+            .lowCardinalityKeyValue("source", "cache");
+        return observation.observe(() -> userDetailsCache.get(username, name -> {
+            observation.lowCardinalityKeyValue("source", "database");
+            return loadUserSnapshot(name);
+        }));
+    }
+
+    private UserDetails loadUserSnapshot(String username) {
+        User user = userRepository.findByUsernameWithRoles(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
         if (!user.isEnabled()) {
@@ -43,9 +68,23 @@ public class CustomUserDetailsService implements UserDetailsService {
         );
     }
 
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        // Called by the provider after a successful login whose stored hash no longer matches the policy
+        if (userRepository.updatePasswordByUsername(user.getUsername(), newPassword, LocalDateTime.now()) > 0) {
+            userDetailsCache.evict(user.getUsername());
+            logger.info("Password hash upgraded for user: {}", user.getUsername());
+        }
+
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+            .password(newPassword)
+            .build();
+    }
+
+    // Each role expands to itself plus its privileges, using shared authority instances
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
-        return user.getRoles().stream()
-            .map(role -> new SimpleGrantedAuthority(role.getName()))
-            .collect(Collectors.toList());
+        return roleAuthorityTable.authoritiesFor(user.getRoles().stream()
+            .map(Role::getName)
+            .collect(Collectors.toList()));
     }
 }
\ No newline at end of file
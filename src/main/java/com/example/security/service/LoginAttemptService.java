@@ -0,0 +1,46 @@
+package com.example.security.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+@Service
+public class LoginAttemptService {
+
+    private static final int STRIPES = 64;
+
+    private final SlidingWindowCounter userAttempts;
+    private final SlidingWindowCounter ipAttempts;
+
+    public LoginAttemptService(@Value("${app.security.login-attempts.max-per-user:5}") int maxPerUser,
+                               @Value("${app.security.login-attempts.max-per-ip:50}") int maxPerIp,
+                               @Value("${app.security.login-attempts.window:15m}") Duration window,
+                               @Value("${app.security.login-attempts.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.userAttempts = new SlidingWindowCounter(STRIPES, maxPerUser, window.toNanos(), maxTrackedKeys);
+        this.ipAttempts = new SlidingWindowCounter(STRIPES, maxPerIp, window.toNanos(), maxTrackedKeys);
+    }
+
+    public boolean isBlocked(String username, String clientIp) {
+        long now = System.nanoTime();
+        return (clientIp != null && ipAttempts.count(clientIp, now) >= ipAttempts.limit())
+            || (username != null && userAttempts.count(username, now) >= userAttempts.limit());
+    }
+
+    // Returns the username's failures inside the window, including this one
+    public int loginFailed(String username, String clientIp) {
+        long now = System.nanoTime();
+        if (clientIp != null) {
+            ipAttempts.increment(clientIp, now);
+        }
+        return username != null ? userAttempts.increment(username, now) : 0;
+    }
+
+    public void loginSucceeded(String username) {
+        userAttempts.reset(username);
+    }
+
+    public int getMaxAttemptsPerUser() {
+        return userAttempts.limit();
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.security.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class LoginBookkeepingWriter implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginBookkeepingWriter.class);
+    private static final String UPDATE_SQL =
+        "UPDATE users SET last_login = COALESCE(?, last_login), failed_login_attempts = ? WHERE username = ?";
+
+    private final Map<String, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final ObservationRegistry observationRegistry;
+    private final ScheduledExecutorService scheduler;
+    private final int batchSize;
+    private final int flushThreshold;
+    private final int maxAttempts;
+    private final int maxPending;
+    private final Timer flushLag;
+    private final DistributionSummary batchSizes;
+    private final Counter droppedRetriesExhausted;
+    private final Counter droppedQueueFull;
+
+    public LoginBookkeepingWriter(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  ObservationRegistry observationRegistry,
+                                  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}") int batchSize,
+                                  @Value("${app.security.login-bookkeeping.flush-threshold:500}") int flushThreshold,
+                                  @Value("${app.security.login-bookkeeping.flush-interval:2s}") Duration flushInterval,
+                                  @Value("${app.security.login-bookkeeping.max-attempts:5}") int maxAttempts,
+                                  @Value("${app.security.login-bookkeeping.max-pending:100000}") int maxPending,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.observationRegistry = observationRegistry;
+        this.batchSize = batchSize;
+        this.flushThreshold = flushThreshold;
+        this.maxAttempts = maxAttempts;
+        this.maxPending = maxPending;
+        // The flush blocks on JDBC, so it follows the request threads onto virtual threads when enabled
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("login-bookkeeping-", 1).factory()
+            : new CustomizableThreadFactory("login-bookkeeping-");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+
+        Gauge.builder("login.bookkeeping.pending", pending, Map::size)
+            .description("Users with login bookkeeping waiting to be written")
+            .register(meterRegistry);
+        this.flushLag = Timer.builder("login.bookkeeping.flush.lag")
+            .description("Time between a login event and its write to the users table")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("login.bookkeeping.flush.size")
+            .description("Rows written per bookkeeping flush")
+            .register(meterRegistry);
+        this.droppedRetriesExhausted = Counter.builder("login.bookkeeping.dropped")
+            .description("User rows whose login bookkeeping was discarded instead of written")
+            .tag("reason", "retries_exhausted")
+            .register(meterRegistry);
+        this.droppedQueueFull = Counter.builder("login.bookkeeping.dropped")
+            .description("User rows whose login bookkeeping was discarded instead of written")
+            .tag("reason", "queue_full")
+            .register(meterRegistry);
+    }
+
+    public void loginSucceeded(String username) {
+        enqueue(username, new PendingUpdate(LocalDateTime.now(), 0, System.nanoTime(), 0));
+    }
+
+    public void loginFailed(String username, int failedAttempts) {
+        enqueue(username, new PendingUpdate(null, failedAttempts, System.nanoTime(), 0));
+    }
+
+    // Also the scheduled task: an exception escaping it would cancel every later run
+    public void flush() {
+        flushRequested.set(false);
+        flushLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<Map.Entry<String, PendingUpdate>> drained = new ArrayList<>(pending.size());
+            for (String username : pending.keySet()) {
+                PendingUpdate update = pending.remove(username);
+                if (update != null) {
+                    drained.add(Map.entry(username, update));
+                }
+            }
+
+            write(drained);
+        } catch (RuntimeException e) {
+            logger.error("Login bookkeeping flush failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        logger.info("Login bookkeeping drained on shutdown");
+    }
+
+    private void enqueue(String username, PendingUpdate update) {
+        // Repeated events for the same user collapse into a single row update
+        pending.merge(username, update, PendingUpdate::merge);
+
+        if (pending.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; destroy() drains whatever is left
+            }
+        }
+    }
+
+    private void write(List<Map.Entry<String, PendingUpdate>> drained) {
+        // Runs on the writer thread, so each flush is its own trace with the batch statements beneath it
+        Observation observation = Observation.start("login.bookkeeping.flush", observationRegistry);
+        try (Observation.Scope scope = observation.openScope()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, drained, batchSize, (ps, entry) -> {
+                PendingUpdate update = entry.getValue();
+                if (update.lastLogin() != null) {
+                    ps.setTimestamp(1, Timestamp.valueOf(update.lastLogin()));
+                } else {
+                    ps.setNull(1, Types.TIMESTAMP);
+                }
+                ps.setInt(2, update.failedAttempts());
+                ps.setString(3, entry.getKey());
+            });
+        } catch (RuntimeException e) {
+            // Includes CannotCreateTransactionException, which is not a DataAccessException
+            observation.error(e);
+            logger.error("Failed to write login bookkeeping for {} users, will retry: {}", drained.size(), e.getMessage());
+            requeue(drained);
+            return;
+        } finally {
+            observation.stop();
+        }
+
+        long now = System.nanoTime();
+        drained.forEach(entry -> flushLag.record(now - entry.getValue().enqueuedAt(), TimeUnit.NANOSECONDS));
+        batchSizes.record(drained.size());
+        logger.debug("Wrote login bookkeeping for {} users", drained.size());
+    }
+
+    // While the database is down every flush fails, so retries are capped per row and the queue is not allowed to
+    // grow past max-pending; what is given up on is counted rather than held onto
+    private void requeue(List<Map.Entry<String, PendingUpdate>> failed) {
+        for (Map.Entry<String, PendingUpdate> entry : failed) {
+            PendingUpdate update = entry.getValue().failedOnce();
+            if (update.attempts() >= maxAttempts) {
+                droppedRetriesExhausted.increment();
+            } else if (pending.size() >= maxPending && !pending.containsKey(entry.getKey())) {
+                droppedQueueFull.increment();
+            } else {
+                // Anything queued meanwhile is newer and takes precedence over the requeued state
+                pending.merge(entry.getKey(), update, (newer, older) -> older.merge(newer));
+            }
+        }
+    }
+
+    private record PendingUpdate(LocalDateTime lastLogin, int failedAttempts, long enqueuedAt, int attempts) {
+
+        private PendingUpdate merge(PendingUpdate newer) {
+            return new PendingUpdate(
+                newer.lastLogin != null ? newer.lastLogin : lastLogin,
+                newer.failedAttempts,
+                enqueuedAt,
+                attempts);
+        }
+
+        private PendingUpdate failedOnce() {
+            return new PendingUpdate(lastLogin, failedAttempts, enqueuedAt, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.security.service;
+
+import com.example.security.model.Privilege;
+import com.example.security.model.Role;
+import com.example.security.model.RoleDefinitionsChangedEvent;
+import com.example.security.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class RoleAuthorityTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleAuthorityTable.class);
+
+    private final RoleRepository roleRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final Map<String, GrantedAuthority> canonical = new ConcurrentHashMap<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Immutable snapshot, replaced wholesale; null means it must be rebuilt before use
+    private volatile Map<String, List<GrantedAuthority>> authoritiesByRole;
+
+    public RoleAuthorityTable(RoleRepository roleRepository, UserDetailsCache userDetailsCache) {
+        this.roleRepository = roleRepository;
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    public Collection<GrantedAuthority> authoritiesFor(Collection<String> roleNames) {
+        Map<String, List<GrantedAuthority>> table = table();
+
+        if (roleNames.size() == 1) {
+            String roleName = roleNames.iterator().next();
+            List<GrantedAuthority> authorities = table.get(roleName);
+            return authorities != null ? authorities : List.of(authority(roleName));
+        }
+
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        for (String roleName : roleNames) {
+            List<GrantedAuthority> expanded = table.get(roleName);
+            if (expanded != null) {
+                authorities.addAll(expanded);
+            } else {
+                authorities.add(authority(roleName));
+            }
+        }
+        return authorities;
+    }
+
+    public GrantedAuthority authority(String name) {
+        return canonical.computeIfAbsent(name, SimpleGrantedAuthority::new);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        reloadLock.lock();
+        try {
+            Map<String, List<GrantedAuthority>> table = new HashMap<>();
+            for (Role role : roleRepository.findAllWithPrivileges()) {
+                List<GrantedAuthority> authorities = new ArrayList<>(role.getPrivileges().size() + 1);
+                authorities.add(authority(role.getName()));
+                for (Privilege privilege : role.getPrivileges()) {
+                    authorities.add(authority(privilege.getName()));
+                }
+                table.put(role.getName(), List.copyOf(authorities));
+            }
+            authoritiesByRole = Map.copyOf(table);
+            logger.info("Loaded authorities for {} roles", table.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleDefinitionsChanged(RoleDefinitionsChangedEvent event) {
+        logger.debug("{} {} changed, role authorities will be reloaded", event.entity(), event.id());
+        // Taken so a reload already reading the old definitions publishes before the table is cleared, not after
+        reloadLock.lock();
+        try {
+            authoritiesByRole = null;
+        } finally {
+            reloadLock.unlock();
+        }
+        // Cached user details carry the old expansion
+        userDetailsCache.evictAll();
+    }
+
+    private Map<String, List<GrantedAuthority>> table() {
+        Map<String, List<GrantedAuthority>> table = authoritiesByRole;
+        if (table == null) {
+            reloadLock.lock();
+            try {
+                if (authoritiesByRole == null) {
+                    reload();
+                }
+                table = authoritiesByRole;
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return table;
+    }
+}
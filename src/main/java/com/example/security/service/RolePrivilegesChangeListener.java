@@ -0,0 +1,61 @@
+package com.example.security.service;
+
+import com.example.security.model.Role;
+import com.example.security.model.RoleDefinitionsChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Granting or revoking a privilege only changes the role_privileges join table, which Hibernate reports as a
+// collection event rather than an update of the role, so RoleDefinitionListener never sees it
+@Component
+public class RolePrivilegesChangeListener implements PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String PRIVILEGES_COLLECTION = Role.class.getName() + ".privileges";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RolePrivilegesChangeListener(EntityManagerFactory entityManagerFactory,
+                                        ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onChange(event);
+    }
+
+    private void onChange(AbstractCollectionEvent event) {
+        if (PRIVILEGES_COLLECTION.equals(event.getCollection().getRole())) {
+            eventPublisher.publishEvent(new RoleDefinitionsChangedEvent("Role",
+                (Long) event.getAffectedOwnerIdOrNull()));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.security.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+class SlidingWindowCounter {
+
+    private final Stripe[] stripes;
+    private final int limit;
+    private final long windowNanos;
+    private final int maxKeysPerStripe;
+
+    SlidingWindowCounter(int stripeCount, int limit, long windowNanos, int maxKeys) {
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.limit = limit;
+        this.windowNanos = windowNanos;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / stripes.length);
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int count(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            return window == null ? 0 : window.count(now, windowNanos);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // Records one event and returns the number of events inside the window, including this one
+    int increment(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                if (stripe.windows.size() >= maxKeysPerStripe) {
+                    stripe.evict(now, windowNanos, maxKeysPerStripe);
+                }
+                window = new Window(limit);
+                stripe.windows.put(key, window);
+            }
+            return window.record(now, windowNanos);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    void reset(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.windows.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Window> windows = new HashMap<>();
+
+        private void evict(long now, long windowNanos, int maxKeys) {
+            windows.values().removeIf(window -> window.count(now, windowNanos) == 0);
+            if (windows.size() >= maxKeys) {
+                // Still full of live keys: drop an arbitrary one rather than grow without bound
+                Iterator<Window> it = windows.values().iterator();
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    // Ring of the most recent event timestamps; only `limit` of them can ever matter
+    private static final class Window {
+
+        private final long[] timestamps;
+        private int next;
+        private int size;
+
+        private Window(int capacity) {
+            this.timestamps = new long[capacity];
+        }
+
+        private int record(long now, long windowNanos) {
+            timestamps[next] = now;
+            next = (next + 1) % timestamps.length;
+            if (size < timestamps.length) {
+                size++;
+            }
+            return count(now, windowNanos);
+        }
+
+        private int count(long now, long windowNanos) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (now - timestamps[i] < windowNanos) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Cache.get(key, loader) runs the loader inside a ConcurrentHashMap bin lock, which pins a virtual
+// thread for the whole JDBC round trip. Loads here happen outside the cache; an invalidation that
+// races with a load wins, so a value read before a change is never cached after it.
+public final class UnpinnedCacheLoader<K, V> {
+
+    private final Cache<K, V> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UnpinnedCacheLoader(Cache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long seen = invalidations.get();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            cache.asMap().compute(key, (k, current) -> invalidations.get() == seen ? loaded : current);
+        }
+        return loaded;
+    }
+
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll(Iterable<? extends K> keys) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(keys);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class UserDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsCache.class);
+    private static final String CACHE_NAME = "userDetails";
+
+    private final UnpinnedCacheLoader<String, UserDetails> cache;
+
+    public UserDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${app.security.user-cache.ttl:5m}") Duration ttl) {
+        Cache<String, UserDetails> cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.cache = new UnpinnedCacheLoader<>(cache);
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        // Hand out copies: the provider erases credentials on the returned instance
+        return User.withUserDetails(cache.get(username, loader)).build();
+    }
+
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        cache.invalidate(username);
+
+        // Evict again once the change is visible, so a concurrent load cannot re-cache stale state
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+        logger.debug("Evicted cached user details for: {}", username);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.security.service;
+
+import com.example.security.dto.UserRegistrationDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Streams registration rows one line at a time: CSV with a header row naming the columns, or JSON lines
+public final class UserImportReader {
+
+    public enum Format {
+        CSV,
+        JSON_LINES
+    }
+
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .readerFor(UserRegistrationDto.class);
+
+    private final BufferedReader reader;
+    private final Format format;
+    private Map<String, Integer> columns;
+    private long line;
+
+    public UserImportReader(BufferedReader reader, Format format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    // Returns null at end of input; a row that cannot be parsed carries an error instead of a DTO
+    public Row next() {
+        String text = readNonBlankLine();
+        if (text != null && format == Format.CSV && columns == null) {
+            columns = header(text);
+            text = readNonBlankLine();
+        }
+        if (text == null) {
+            return null;
+        }
+        return format == Format.CSV ? csvRow(text) : jsonRow(text);
+    }
+
+    private Row jsonRow(String text) {
+        try {
+            return new Row(line, JSON_READER.readValue(text), null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row csvRow(String text) {
+        List<String> fields = splitCsv(text);
+        if (fields == null) {
+            return new Row(line, null, "Unterminated quoted field");
+        }
+
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(field(fields, "username"));
+        dto.setEmail(field(fields, "email"));
+        dto.setPassword(field(fields, "password"));
+        dto.setConfirmPassword(field(fields, "confirmpassword"));
+        dto.setFirstName(field(fields, "firstname"));
+        dto.setLastName(field(fields, "lastname"));
+        return new Row(line, dto, null);
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Map<String, Integer> header(String text) {
+        List<String> names = splitCsv(text);
+        if (names == null) {
+            throw new IllegalArgumentException("Malformed CSV header");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "email", "password", "firstname", "lastname")) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+        return header;
+    }
+
+    private String readNonBlankLine() {
+        try {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // RFC 4180 fields on a single line: commas inside quotes, "" as an escaped quote
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    public record Row(long line, UserRegistrationDto dto, String error) {}
+}
@@ -0,0 +1,243 @@
+package com.example.security.service;
+
+import com.example.security.crypto.OffloadingPasswordEncoder;
+import com.example.security.dto.UserImportResult;
+import com.example.security.dto.UserRegistrationDto;
+import com.example.security.model.Role;
+import com.example.security.model.User;
+import com.example.security.repository.RoleRepository;
+import com.example.security.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Bulk registration: rows are validated and de-duplicated per chunk with set-based queries, passwords are
+// hashed in parallel outside any transaction, and each chunk is inserted in one batched transaction
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder hashingEncoder;
+    private final Validator validator;
+    private final ExecutorService hashingPool;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(UserRepository userRepository,
+                             RoleRepository roleRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             @Value("${app.security.user-import.chunk-size:500}") int chunkSize,
+                             @Value("${app.security.user-import.hashing-threads:0}") int hashingThreads,
+                             @Value("${app.security.user-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.roleRepository = roleRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The login pool is sized and queued for interactive traffic; imports bring their own threads
+        this.hashingEncoder = passwordEncoder instanceof OffloadingPasswordEncoder offloading
+            ? offloading.getDelegate()
+            : passwordEncoder;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        this.hashingPool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("user-import-hashing-"));
+    }
+
+    public UserImportResult importUsers(UserImportReader reader) {
+        long started = System.nanoTime();
+        Long defaultRoleId = roleRepository.findByName(DEFAULT_ROLE)
+            .map(Role::getId)
+            .orElseThrow(() -> new RuntimeException("Default role not found"));
+
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<UserImportReader.Row> chunk = new ArrayList<>(chunkSize);
+
+        UserImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            progress.rowsRead++;
+            String problem = row.error() != null ? row.error() : validate(row.dto(), seenUsernames, seenEmails);
+            if (problem != null) {
+                progress.reject(row, problem);
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, defaultRoleId, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, defaultRoleId, progress);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        double rowsPerSecond = progress.rowsRead * 1000.0 / Math.max(1, elapsedMillis);
+        logger.info("Imported {} of {} users in {} ms ({} rows/s), {} rejected", progress.imported,
+            progress.rowsRead, elapsedMillis, Math.round(rowsPerSecond), progress.rejected);
+        progress.errors.sort(Comparator.comparingLong(UserImportResult.RowError::line));
+        return new UserImportResult(progress.rowsRead, progress.imported, progress.rejected,
+            List.copyOf(progress.errors), elapsedMillis, rowsPerSecond);
+    }
+
+    private String validate(UserRegistrationDto dto, Set<String> seenUsernames, Set<String> seenEmails) {
+        // confirmPassword is optional in a file, but must match when present
+        String violations = validator.validate(dto).stream()
+            .filter(violation -> !(dto.getConfirmPassword() == null
+                && violation.getPropertyPath().toString().equals("confirmPassword")))
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            return violations;
+        }
+        if (dto.getConfirmPassword() != null && !dto.getConfirmPassword().equals(dto.getPassword())) {
+            return "Passwords do not match";
+        }
+        if (!seenUsernames.add(dto.getUsername())) {
+            return "Duplicate username in import";
+        }
+        if (!seenEmails.add(dto.getEmail())) {
+            return "Duplicate email in import";
+        }
+        return null;
+    }
+
+    private void importChunk(List<UserImportReader.Row> chunk, Long defaultRoleId, ImportProgress progress) {
+        // Two queries per chunk instead of two exists checks per row
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(
+            chunk.stream().map(row -> row.dto().getUsername()).toList()));
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(
+            chunk.stream().map(row -> row.dto().getEmail()).toList()));
+
+        List<UserImportReader.Row> accepted = new ArrayList<>(chunk.size());
+        for (UserImportReader.Row row : chunk) {
+            if (takenUsernames.contains(row.dto().getUsername())) {
+                progress.reject(row, "Username already exists");
+            } else if (takenEmails.contains(row.dto().getEmail())) {
+                progress.reject(row, "Email already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Hash before opening the transaction so no connection is held during CPU work
+        List<CompletableFuture<String>> hashing = accepted.stream()
+            .map(row -> CompletableFuture.supplyAsync(() -> hashingEncoder.encode(row.dto().getPassword()), hashingPool))
+            .toList();
+        List<String> encodedPasswords = hashing.stream().map(CompletableFuture::join).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accepted, encodedPasswords, defaultRoleId));
+            progress.imported += accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration claimed a name or email after the check; find the row one by one
+            logger.warn("Import chunk rejected by the database, retrying {} rows individually", accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                List<UserImportReader.Row> single = List.of(accepted.get(i));
+                List<String> singlePassword = List.of(encodedPasswords.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(single, singlePassword, defaultRoleId));
+                    progress.imported++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    progress.reject(accepted.get(i), "Username or email already exists");
+                }
+            }
+        }
+    }
+
+    private void insert(List<UserImportReader.Row> rows, List<String> encodedPasswords, Long defaultRoleId) {
+        // Sequence ids are assigned in memory, so users and user_roles go out as JDBC batches on flush
+        entityManager.unwrap(Session.class).setJdbcBatchSize(chunkSize);
+        Role defaultRole = entityManager.getReference(Role.class, defaultRoleId);
+
+        for (int i = 0; i < rows.size(); i++) {
+            UserRegistrationDto dto = rows.get(i).dto();
+            User user = new User();
+            user.setUsername(dto.getUsername());
+            user.setEmail(dto.getEmail());
+            user.setPassword(encodedPasswords.get(i));
+            user.setFirstName(dto.getFirstName());
+            user.setLastName(dto.getLastName());
+            user.setEnabled(true);
+            user.setAccountNonExpired(true);
+            user.setAccountNonLocked(true);
+            user.setCredentialsNonExpired(true);
+            user.setRoles(new HashSet<>(Set.of(defaultRole)));
+            entityManager.persist(user);
+        }
+
+        try {
+            entityManager.flush();
+        } catch (ConstraintViolationException e) {
+            // Flushed through the shared EntityManager rather than a repository, so nothing translates it
+            throw new DataIntegrityViolationException(e.getMessage(), e);
+        }
+        entityManager.clear();
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdown();
+    }
+
+    private static final class ImportProgress {
+
+        private final int maxReportedErrors;
+        private final List<UserImportResult.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+
+        ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void reject(UserImportReader.Row row, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                String username = row.dto() != null ? row.dto().getUsername() : null;
+                errors.add(new UserImportResult.RowError(row.line(), username, message));
+            }
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package com.example.security.service;
 
+import com.example.security.audit.AuditEventPublisher;
+import com.example.security.audit.AuditEventType;
 import com.example.security.dto.UserRegistrationDto;
+import com.example.security.dto.UserSearchCriteria;
+import com.example.security.dto.UserSummary;
+import com.example.security.dto.UserSummaryWindow;
 import com.example.security.model.Role;
 import com.example.security.model.User;
 import com.example.security.repository.RoleRepository;
 import com.example.security.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -26,13 +41,25 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final LoginAttemptService loginAttemptService;
+    private final SessionRegistry sessionRegistry;
+    private final AuditEventPublisher auditEventPublisher;
 
     public UserService(UserRepository userRepository, 
                       RoleRepository roleRepository,
-                      PasswordEncoder passwordEncoder) {
+                      PasswordEncoder passwordEncoder,
+                      UserDetailsCache userDetailsCache,
+                      LoginAttemptService loginAttemptService,
+                      SessionRegistry sessionRegistry,
+                      AuditEventPublisher auditEventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.loginAttemptService = loginAttemptService;
+        this.sessionRegistry = sessionRegistry;
+        this.auditEventPublisher = auditEventPublisher;
     }
 
     public User registerNewUser(UserRegistrationDto dto) {
@@ -63,7 +90,9 @@ public class UserService {
         roles.add(userRole);
         user.setRoles(roles);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        audit(AuditEventType.USER_REGISTERED, saved.getUsername(), null);
+        return saved;
     }
 
     public Optional<User> findByUsername(String username) {
@@ -74,50 +103,136 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<String> findEmailByUsername(String username) {
+        return userRepository.findEmailByUsername(username);
+    }
+
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
 
-    public void unlockAccount(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setAccountNonLocked(true);
-            user.setFailedLoginAttempts(0);
-            userRepository.save(user);
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findUsers(UserSearchCriteria criteria, Pageable pageable) {
+        return userRepository.searchSummaries(criteria.roleName(), criteria.enabled(), criteria.locked(),
+            criteria.lastLoginFrom(), criteria.lastLoginTo(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public UserSummaryWindow findUsersAfter(UserSearchCriteria criteria, Long afterId, int size) {
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<UserSummary> rows = userRepository.searchSummariesAfter(criteria.roleName(), criteria.enabled(),
+            criteria.locked(), criteria.lastLoginFrom(), criteria.lastLoginTo(), afterId,
+            PageRequest.ofSize(size + 1));
+
+        if (rows.size() <= size) {
+            return new UserSummaryWindow(rows, null);
+        }
+        List<UserSummary> content = rows.subList(0, size);
+        return new UserSummaryWindow(content, content.get(size - 1).id());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findActiveUsers(Pageable pageable) {
+        return userRepository.findActiveUserSummaries(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findUsersByRole(String roleName, Pageable pageable) {
+        return userRepository.findSummariesByRoleName(roleName, pageable);
+    }
+
+    public int unlockAccount(String username) {
+        int updated = userRepository.unlockByUsername(username, LocalDateTime.now());
+        if (updated > 0) {
+            userDetailsCache.evict(username);
+            loginAttemptService.loginSucceeded(username);
             logger.info("Account unlocked for user: {}", username);
+            audit(AuditEventType.ACCOUNT_UNLOCKED, username, null);
+        }
+        return updated;
+    }
+
+    public int unlockAccounts(Collection<String> usernames) {
+        int updated = userRepository.unlockByUsernameIn(usernames, LocalDateTime.now());
+        usernames.forEach(username -> {
+            userDetailsCache.evict(username);
+            loginAttemptService.loginSucceeded(username);
         });
+        logger.info("Accounts unlocked: {} of {} requested", updated, usernames.size());
+        auditBulk(AuditEventType.ACCOUNT_UNLOCKED, usernames, updated);
+        return updated;
     }
 
-    public void lockAccount(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setAccountNonLocked(false);
-            userRepository.save(user);
+    public int lockAccount(String username) {
+        int updated = userRepository.lockByUsername(username, LocalDateTime.now());
+        if (updated > 0) {
+            userDetailsCache.evict(username);
+            revokeSessions(List.of(username));
             logger.info("Account locked for user: {}", username);
-        });
+            audit(AuditEventType.ACCOUNT_LOCKED, username, null);
+        }
+        return updated;
     }
 
-    public void enableAccount(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setEnabled(true);
-            userRepository.save(user);
+    public int lockAccounts(Collection<String> usernames) {
+        int updated = userRepository.lockByUsernameIn(usernames, LocalDateTime.now());
+        usernames.forEach(userDetailsCache::evict);
+        revokeSessions(usernames);
+        logger.info("Accounts locked: {} of {} requested", updated, usernames.size());
+        auditBulk(AuditEventType.ACCOUNT_LOCKED, usernames, updated);
+        return updated;
+    }
+
+    public int enableAccount(String username) {
+        int updated = userRepository.updateEnabledByUsername(username, true, LocalDateTime.now());
+        if (updated > 0) {
+            userDetailsCache.evict(username);
             logger.info("Account enabled for user: {}", username);
-        });
+            audit(AuditEventType.ACCOUNT_ENABLED, username, null);
+        }
+        return updated;
     }
 
-    public void disableAccount(String username) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setEnabled(false);
-            userRepository.save(user);
+    public int enableAccounts(Collection<String> usernames) {
+        int updated = userRepository.updateEnabledByUsernameIn(usernames, true, LocalDateTime.now());
+        usernames.forEach(userDetailsCache::evict);
+        logger.info("Accounts enabled: {} of {} requested", updated, usernames.size());
+        auditBulk(AuditEventType.ACCOUNT_ENABLED, usernames, updated);
+        return updated;
+    }
+
+    public int disableAccount(String username) {
+        int updated = userRepository.updateEnabledByUsername(username, false, LocalDateTime.now());
+        if (updated > 0) {
+            userDetailsCache.evict(username);
+            revokeSessions(List.of(username));
             logger.info("Account disabled for user: {}", username);
-        });
+            audit(AuditEventType.ACCOUNT_DISABLED, username, null);
+        }
+        return updated;
     }
 
-    public void updatePassword(String username, String newPassword) {
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setPassword(passwordEncoder.encode(newPassword));
-            user.setCredentialsNonExpired(true);
-            userRepository.save(user);
+    public int disableAccounts(Collection<String> usernames) {
+        int updated = userRepository.updateEnabledByUsernameIn(usernames, false, LocalDateTime.now());
+        usernames.forEach(userDetailsCache::evict);
+        revokeSessions(usernames);
+        logger.info("Accounts disabled: {} of {} requested", updated, usernames.size());
+        auditBulk(AuditEventType.ACCOUNT_DISABLED, usernames, updated);
+        return updated;
+    }
+
+    public int updatePassword(String username, String newPassword) {
+        // Hashed whether or not the account exists, so the call takes as long for an unknown username and a
+        // zero update count is the only sign of one
+        int updated = userRepository.updatePasswordByUsername(username, passwordEncoder.encode(newPassword),
+            LocalDateTime.now());
+        if (updated > 0) {
+            userDetailsCache.evict(username);
             logger.info("Password updated for user: {}", username);
-        });
+            audit(AuditEventType.PASSWORD_CHANGED, username, null);
+        }
+        return updated;
     }
 
     public void addRoleToUser(String username, String roleName) {
@@ -129,7 +244,9 @@ public class UserService {
         
         user.getRoles().add(role);
         userRepository.save(user);
+        userDetailsCache.evict(username);
         logger.info("Role {} added to user: {}", roleName, username);
+        audit(AuditEventType.ROLE_GRANTED, username, roleName);
     }
 
     public void removeRoleFromUser(String username, String roleName) {
@@ -141,11 +258,60 @@ public class UserService {
         
         user.getRoles().remove(role);
         userRepository.save(user);
+        userDetailsCache.evict(username);
         logger.info("Role {} removed from user: {}", roleName, username);
+        audit(AuditEventType.ROLE_REVOKED, username, roleName);
     }
 
     public List<User> findInactiveUsers(int days) {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
         return userRepository.findInactiveUsers(cutoffDate);
     }
-}
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    public Page<UserSummary> findInactiveUsers(int days, Pageable pageable) {
+        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
+        return userRepository.findInactiveUserSummaries(cutoffDate, pageable);
+    }
+
+    // The principal is the account acted on; whoever made the change, if anyone is signed in, goes in the detail.
+    // Published only once the change has committed, so a rolled-back change leaves no trace in the audit trail.
+    private void audit(AuditEventType type, String username, String detail) {
+        Authentication actor = SecurityContextHolder.getContext().getAuthentication();
+        String auditDetail = detail;
+        if (actor != null && actor.isAuthenticated() && !actor.getName().equals(username)) {
+            auditDetail = detail == null ? "by " + actor.getName() : detail + " by " + actor.getName();
+        }
+        String published = auditDetail;
+        afterCommit(() -> auditEventPublisher.publish(type, username, null, published));
+    }
+
+    // The single UPDATE does not say which rows it changed, so each requested account is audited with the count;
+    // a change that matched nothing is not audited at all
+    private void auditBulk(AuditEventType type, Collection<String> usernames, int updated) {
+        if (updated == 0) {
+            return;
+        }
+        String detail = "bulk, " + updated + " of " + usernames.size() + " changed";
+        usernames.forEach(username -> audit(type, username, detail));
+    }
+
+    // Expired sessions are logged out on their next request by the concurrent session filter
+    private void revokeSessions(Collection<String> usernames) {
+        afterCommit(() -> usernames.forEach(username ->
+            sessionRegistry.getAllSessions(username, false).forEach(SessionInformation::expireNow)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
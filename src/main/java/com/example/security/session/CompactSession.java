@@ -0,0 +1,138 @@
+package com.example.security.session;
+
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+// Tracks what changed since load so saves can skip, touch, or merge instead of always rewriting
+public class CompactSession implements Session {
+
+    private final MapSession delegate;
+    private final String primaryId;
+    private boolean isNew;
+    private final Set<String> changedAttributes = new HashSet<>();
+    private String originalId;
+    private long version;
+    private Instant storedLastAccessedTime;
+    private boolean maxInactiveIntervalChanged;
+
+    CompactSession(MapSession delegate, String primaryId, long version, boolean isNew) {
+        this.delegate = delegate;
+        this.primaryId = primaryId;
+        this.version = version;
+        this.isNew = isNew;
+        this.originalId = delegate.getId();
+        this.storedLastAccessedTime = delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public String getId() {
+        return delegate.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+        return delegate.changeSessionId();
+    }
+
+    @Override
+    public <T> T getAttribute(String attributeName) {
+        return delegate.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return delegate.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        delegate.setAttribute(attributeName, attributeValue);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        delegate.removeAttribute(attributeName);
+        changedAttributes.add(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return delegate.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        delegate.setLastAccessedTime(lastAccessedTime);
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        if (!interval.equals(delegate.getMaxInactiveInterval())) {
+            maxInactiveIntervalChanged = true;
+        }
+        delegate.setMaxInactiveInterval(interval);
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return delegate.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+        return delegate.isExpired();
+    }
+
+    MapSession getDelegate() {
+        return delegate;
+    }
+
+    String getPrimaryId() {
+        return primaryId;
+    }
+
+    String getOriginalId() {
+        return originalId;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    boolean isNew() {
+        return isNew;
+    }
+
+    Set<String> getChangedAttributes() {
+        return changedAttributes;
+    }
+
+    boolean isIdChanged() {
+        return !originalId.equals(delegate.getId());
+    }
+
+    boolean isMetadataChanged(Duration touchInterval) {
+        return maxInactiveIntervalChanged
+            || Duration.between(storedLastAccessedTime, delegate.getLastAccessedTime()).compareTo(touchInterval) >= 0;
+    }
+
+    void markSaved(long version) {
+        this.isNew = false;
+        this.version = version;
+        this.originalId = delegate.getId();
+        this.storedLastAccessedTime = delegate.getLastAccessedTime();
+        this.maxInactiveIntervalChanged = false;
+        this.changedAttributes.clear();
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.security.session;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.PrincipalNameIndexResolver;
+import org.springframework.session.Session;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Sessions in a shared table, with a per-node cache of decoded sessions validated by row version
+public class CompactSessionRepository implements FindByIndexNameSessionRepository<CompactSession> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactSessionRepository.class);
+    private static final String CACHE_NAME = "sessions";
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
+    private static final String SELECT_COLUMNS =
+        "SELECT primary_id, session_id, version, creation_time, last_access_time, max_inactive_interval, attributes "
+            + "FROM http_sessions ";
+    private static final String SELECT_BY_SESSION_ID = SELECT_COLUMNS + "WHERE session_id = ?";
+    private static final String SELECT_BY_PRIMARY_ID = SELECT_COLUMNS + "WHERE primary_id = ?";
+    private static final String SELECT_BY_PRINCIPAL_NAME = SELECT_COLUMNS + "WHERE principal_name = ?";
+    private static final String SELECT_STAMP =
+        "SELECT version, last_access_time, max_inactive_interval FROM http_sessions WHERE session_id = ?";
+    private static final String INSERT =
+        "INSERT INTO http_sessions (primary_id, session_id, principal_name, version, creation_time, "
+            + "last_access_time, max_inactive_interval, expiry_time, attributes) VALUES (?, ?, ?, 1, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_ATTRIBUTES =
+        "UPDATE http_sessions SET session_id = ?, principal_name = ?, version = version + 1, last_access_time = ?, "
+            + "max_inactive_interval = ?, expiry_time = ?, attributes = ? WHERE primary_id = ? AND version = ?";
+    private static final String UPDATE_ACCESS =
+        "UPDATE http_sessions SET session_id = ?, last_access_time = ?, max_inactive_interval = ?, expiry_time = ? "
+            + "WHERE primary_id = ?";
+    private static final String DELETE_BY_SESSION_ID = "DELETE FROM http_sessions WHERE session_id = ?";
+    private static final String SELECT_EXPIRED = "SELECT primary_id FROM http_sessions WHERE expiry_time < ?";
+    private static final String DELETE_BY_PRIMARY_ID = "DELETE FROM http_sessions WHERE primary_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cleanupTemplate;
+    private final SessionAttributeCodec codec;
+    private final Cache<String, CachedSession> nearCache;
+    private final Duration defaultMaxInactiveInterval;
+    private final Duration touchInterval;
+    private final PrincipalNameIndexResolver<Session> principalNameResolver = new PrincipalNameIndexResolver<>();
+
+    public CompactSessionRepository(JdbcTemplate jdbcTemplate,
+                                    SessionAttributeCodec codec,
+                                    MeterRegistry meterRegistry,
+                                    long nearCacheSize,
+                                    Duration defaultMaxInactiveInterval,
+                                    Duration touchInterval,
+                                    int cleanupBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+        this.defaultMaxInactiveInterval = defaultMaxInactiveInterval;
+        this.touchInterval = touchInterval;
+        this.cleanupTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.cleanupTemplate.setMaxRows(cleanupBatchSize);
+        this.nearCache = Caffeine.newBuilder()
+            .maximumSize(nearCacheSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, CACHE_NAME);
+    }
+
+    @Override
+    public CompactSession createSession() {
+        MapSession session = new MapSession();
+        session.setMaxInactiveInterval(defaultMaxInactiveInterval);
+        return new CompactSession(session, UUID.randomUUID().toString(), 0, true);
+    }
+
+    @Override
+    public void save(CompactSession session) {
+        long version;
+        if (session.isNew()) {
+            insert(session);
+            version = 1;
+        } else if (!session.getChangedAttributes().isEmpty()) {
+            version = writeAttributes(session);
+            if (version < 0) {
+                nearCache.invalidate(session.getOriginalId());
+                return;
+            }
+        } else if (session.isIdChanged() || session.isMetadataChanged(touchInterval)) {
+            // Only the access time moved; the attributes and cached copies stay valid
+            touch(session);
+            version = session.getVersion();
+        } else {
+            return;
+        }
+
+        if (session.isIdChanged()) {
+            nearCache.invalidate(session.getOriginalId());
+        }
+        session.markSaved(version);
+        nearCache.put(session.getId(),
+            new CachedSession(session.getPrimaryId(), version, new MapSession(session.getDelegate())));
+    }
+
+    @Override
+    public CompactSession findById(String id) {
+        CompactSession session = null;
+
+        CachedSession cached = nearCache.getIfPresent(id);
+        if (cached != null) {
+            // One narrow read tells us whether the decoded copy is still current
+            List<SessionStamp> stamps = jdbcTemplate.query(SELECT_STAMP, (rs, rowNum) -> new SessionStamp(
+                rs.getLong("version"), rs.getLong("last_access_time"), rs.getInt("max_inactive_interval")), id);
+            if (stamps.isEmpty()) {
+                nearCache.invalidate(id);
+                return null;
+            }
+            SessionStamp stamp = stamps.get(0);
+            if (stamp.version() == cached.version()) {
+                MapSession copy = new MapSession(cached.session());
+                copy.setLastAccessedTime(Instant.ofEpochMilli(stamp.lastAccessTime()));
+                copy.setMaxInactiveInterval(Duration.ofSeconds(stamp.maxInactiveInterval()));
+                session = new CompactSession(copy, cached.primaryId(), stamp.version(), false);
+            }
+        }
+
+        if (session == null) {
+            StoredSession stored = queryOne(SELECT_BY_SESSION_ID, id);
+            if (stored == null) {
+                nearCache.invalidate(id);
+                return null;
+            }
+            session = toSession(stored);
+            nearCache.put(id, new CachedSession(stored.primaryId(), stored.version(), new MapSession(session.getDelegate())));
+        }
+
+        if (session.isExpired()) {
+            deleteById(id);
+            return null;
+        }
+        return session;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        jdbcTemplate.update(DELETE_BY_SESSION_ID, id);
+        nearCache.invalidate(id);
+    }
+
+    @Override
+    public Map<String, CompactSession> findByIndexNameAndIndexValue(String indexName, String indexValue) {
+        if (!PRINCIPAL_NAME_INDEX_NAME.equals(indexName)) {
+            return Map.of();
+        }
+
+        Map<String, CompactSession> sessions = new LinkedHashMap<>();
+        for (StoredSession stored : jdbcTemplate.query(SELECT_BY_PRINCIPAL_NAME, this::mapRow, indexValue)) {
+            CompactSession session = toSession(stored);
+            if (!session.isExpired()) {
+                sessions.put(session.getId(), session);
+            }
+        }
+        return sessions;
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.cleanup-interval:1m}",
+               initialDelayString = "${app.session.cleanup-interval:1m}")
+    public void purgeExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int purged = 0;
+
+        List<String> expired;
+        do {
+            expired = cleanupTemplate.queryForList(SELECT_EXPIRED, String.class, now);
+            if (!expired.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_BY_PRIMARY_ID, expired, expired.size(),
+                    (ps, primaryId) -> ps.setString(1, primaryId));
+                purged += expired.size();
+            }
+        } while (expired.size() == cleanupTemplate.getMaxRows());
+
+        if (purged > 0) {
+            logger.debug("Purged {} expired sessions", purged);
+        }
+    }
+
+    private void insert(CompactSession session) {
+        MapSession delegate = session.getDelegate();
+        jdbcTemplate.update(INSERT,
+            session.getPrimaryId(),
+            session.getId(),
+            principalNameResolver.resolveIndexValueFor(session),
+            delegate.getCreationTime().toEpochMilli(),
+            delegate.getLastAccessedTime().toEpochMilli(),
+            (int) delegate.getMaxInactiveInterval().toSeconds(),
+            expiryTime(delegate),
+            codec.encode(attributes(delegate)));
+    }
+
+    private void touch(CompactSession session) {
+        MapSession delegate = session.getDelegate();
+        jdbcTemplate.update(UPDATE_ACCESS,
+            session.getId(),
+            delegate.getLastAccessedTime().toEpochMilli(),
+            (int) delegate.getMaxInactiveInterval().toSeconds(),
+            expiryTime(delegate),
+            session.getPrimaryId());
+    }
+
+    // Returns the new version, or -1 if the session was removed by someone else meanwhile
+    private long writeAttributes(CompactSession session) {
+        MapSession delegate = session.getDelegate();
+        long expectedVersion = session.getVersion();
+
+        for (int attempt = 0; attempt < MAX_MERGE_ATTEMPTS; attempt++) {
+            int updated = jdbcTemplate.update(UPDATE_ATTRIBUTES,
+                session.getId(),
+                principalNameResolver.resolveIndexValueFor(session),
+                delegate.getLastAccessedTime().toEpochMilli(),
+                (int) delegate.getMaxInactiveInterval().toSeconds(),
+                expiryTime(delegate),
+                codec.encode(attributes(delegate)),
+                session.getPrimaryId(),
+                expectedVersion);
+            if (updated == 1) {
+                return expectedVersion + 1;
+            }
+
+            StoredSession current = queryOne(SELECT_BY_PRIMARY_ID, session.getPrimaryId());
+            if (current == null) {
+                logger.debug("Session {} was removed before it could be saved", session.getId());
+                return -1;
+            }
+
+            // Another node saved first: keep its attributes except the ones this request changed
+            Map<String, Object> theirs = codec.decode(current.attributes());
+            theirs.forEach((name, value) -> {
+                if (!session.getChangedAttributes().contains(name)) {
+                    delegate.setAttribute(name, value);
+                }
+            });
+            for (String name : delegate.getAttributeNames().toArray(String[]::new)) {
+                if (!theirs.containsKey(name) && !session.getChangedAttributes().contains(name)) {
+                    delegate.removeAttribute(name);
+                }
+            }
+            expectedVersion = current.version();
+        }
+
+        logger.warn("Gave up saving session {} after {} conflicting updates", session.getId(), MAX_MERGE_ATTEMPTS);
+        return -1;
+    }
+
+    private CompactSession toSession(StoredSession stored) {
+        MapSession session = new MapSession(stored.sessionId());
+        session.setCreationTime(Instant.ofEpochMilli(stored.creationTime()));
+        session.setLastAccessedTime(Instant.ofEpochMilli(stored.lastAccessTime()));
+        session.setMaxInactiveInterval(Duration.ofSeconds(stored.maxInactiveInterval()));
+        codec.decode(stored.attributes()).forEach(session::setAttribute);
+        return new CompactSession(session, stored.primaryId(), stored.version(), false);
+    }
+
+    private StoredSession queryOne(String sql, String id) {
+        List<StoredSession> rows = jdbcTemplate.query(sql, this::mapRow, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private StoredSession mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new StoredSession(
+            rs.getString("primary_id"),
+            rs.getString("session_id"),
+            rs.getLong("version"),
+            rs.getLong("creation_time"),
+            rs.getLong("last_access_time"),
+            rs.getInt("max_inactive_interval"),
+            rs.getBytes("attributes"));
+    }
+
+    private static Map<String, Object> attributes(MapSession session) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (String name : session.getAttributeNames()) {
+            attributes.put(name, session.getAttribute(name));
+        }
+        return attributes;
+    }
+
+    private static long expiryTime(MapSession session) {
+        Duration maxInactive = session.getMaxInactiveInterval();
+        if (maxInactive.isNegative()) {
+            return Long.MAX_VALUE;
+        }
+        return session.getLastAccessedTime().plus(maxInactive).toEpochMilli();
+    }
+
+    private record CachedSession(String primaryId, long version, MapSession session) {}
+
+    private record SessionStamp(long version, long lastAccessTime, int maxInactiveInterval) {}
+
+    private record StoredSession(String primaryId, String sessionId, long version, long creationTime,
+                                 long lastAccessTime, int maxInactiveInterval, byte[] attributes) {}
+}
@@ -0,0 +1,254 @@
+package com.example.security.session;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.session.AbstractSessionEvent;
+import org.springframework.security.core.session.SessionDestroyedEvent;
+import org.springframework.security.core.session.SessionIdChangedEvent;
+import org.springframework.security.core.session.SessionInformation;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// In-memory registry keyed by username; each user's sessions live in a small array swapped by CAS
+@Component
+@ConditionalOnProperty(name = "app.session.store", havingValue = "memory", matchIfMissing = true)
+public class ConcurrentSessionRegistry implements SessionRegistry, ApplicationListener<AbstractSessionEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentSessionRegistry.class);
+    private static final Entry[] EMPTY = new Entry[0];
+
+    private final ConcurrentMap<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Slot> principals = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> sessionsByRole = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long staleAfterMillis;
+
+    public ConcurrentSessionRegistry(MeterRegistry meterRegistry,
+                                     @Value("${server.servlet.session.timeout:30m}") Duration staleAfter) {
+        this.meterRegistry = meterRegistry;
+        this.staleAfterMillis = staleAfter.toMillis();
+
+        Gauge.builder("sessions.active", sessions, ConcurrentMap::size)
+            .description("Sessions currently registered for concurrent-session control")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public List<Object> getAllPrincipals() {
+        List<Object> result = new ArrayList<>(principals.size());
+        for (Slot slot : principals.values()) {
+            Entry[] entries = slot.entries.get();
+            if (entries != null && entries.length > 0) {
+                result.add(entries[0].information.getPrincipal());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<SessionInformation> getAllSessions(Object principal, boolean includeExpiredSessions) {
+        Slot slot = principals.get(principalName(principal));
+        Entry[] entries = slot != null ? slot.entries.get() : null;
+        if (entries == null || entries.length == 0) {
+            return List.of();
+        }
+
+        long staleBefore = System.currentTimeMillis() - staleAfterMillis;
+        List<SessionInformation> result = new ArrayList<>(entries.length);
+        for (Entry entry : entries) {
+            SessionInformation information = entry.information;
+            // Sessions whose destroy event never arrived are dropped here instead of lingering
+            if (information.getLastRequest().getTime() < staleBefore) {
+                removeSessionInformation(information.getSessionId());
+            } else if (includeExpiredSessions || !information.isExpired()) {
+                result.add(information);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public SessionInformation getSessionInformation(String sessionId) {
+        Entry entry = sessions.get(sessionId);
+        return entry != null ? entry.information : null;
+    }
+
+    @Override
+    public void refreshLastRequest(String sessionId) {
+        Entry entry = sessions.get(sessionId);
+        if (entry != null) {
+            entry.information.refreshLastRequest();
+        }
+    }
+
+    @Override
+    public void registerNewSession(String sessionId, Object principal) {
+        if (sessions.containsKey(sessionId)) {
+            removeSessionInformation(sessionId);
+        }
+
+        String name = principalName(principal);
+        Entry entry = new Entry(new SessionInformation(principal, sessionId, new Date()), name, roles(principal));
+        sessions.put(sessionId, entry);
+
+        // A slot emptied concurrently is retired; help unlink it and retry against a fresh one
+        while (true) {
+            Slot slot = principals.computeIfAbsent(name, key -> new Slot());
+            if (slot.add(entry)) {
+                break;
+            }
+            principals.remove(name, slot);
+        }
+        for (String role : entry.roles) {
+            roleCounter(role).incrementAndGet();
+        }
+        logger.debug("Registered session {} for {}", sessionId, name);
+    }
+
+    @Override
+    public void removeSessionInformation(String sessionId) {
+        Entry entry = sessions.remove(sessionId);
+        if (entry == null) {
+            return;
+        }
+
+        Slot slot = principals.get(entry.principalName);
+        if (slot != null && slot.remove(entry)) {
+            principals.remove(entry.principalName, slot);
+        }
+        for (String role : entry.roles) {
+            roleCounter(role).decrementAndGet();
+        }
+        logger.debug("Removed session {} for {}", sessionId, entry.principalName);
+    }
+
+    @Override
+    public void onApplicationEvent(AbstractSessionEvent event) {
+        if (event instanceof SessionDestroyedEvent destroyed) {
+            removeSessionInformation(destroyed.getId());
+        } else if (event instanceof SessionIdChangedEvent changed) {
+            Entry entry = sessions.get(changed.getOldSessionId());
+            if (entry != null) {
+                removeSessionInformation(changed.getOldSessionId());
+                registerNewSession(changed.getNewSessionId(), entry.information.getPrincipal());
+            }
+        }
+    }
+
+    public int getSessionCount(String username) {
+        Slot slot = principals.get(username);
+        Entry[] entries = slot != null ? slot.entries.get() : null;
+        return entries != null ? entries.length : 0;
+    }
+
+    private AtomicInteger roleCounter(String role) {
+        return sessionsByRole.computeIfAbsent(role, key -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("sessions.active.by.role", counter, AtomicInteger::get)
+                .description("Sessions currently registered, by role of the session's user")
+                .tag("role", key)
+                .register(meterRegistry);
+            return counter;
+        });
+    }
+
+    private static String principalName(Object principal) {
+        if (principal instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        if (principal instanceof AuthenticatedPrincipal authenticatedPrincipal) {
+            return authenticatedPrincipal.getName();
+        }
+        if (principal instanceof Principal namedPrincipal) {
+            return namedPrincipal.getName();
+        }
+        return principal.toString();
+    }
+
+    // Only role authorities are tracked, which keeps the gauge's tag values bounded
+    private static String[] roles(Object principal) {
+        if (!(principal instanceof UserDetails userDetails)) {
+            return new String[0];
+        }
+        return userDetails.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(authority -> authority.startsWith("ROLE_"))
+            .toArray(String[]::new);
+    }
+
+    private record Entry(SessionInformation information, String principalName, String[] roles) {}
+
+    private static final class Slot {
+
+        // null once the slot has been emptied and unlinked
+        private final AtomicReference<Entry[]> entries = new AtomicReference<>(EMPTY);
+
+        boolean add(Entry entry) {
+            while (true) {
+                Entry[] current = entries.get();
+                if (current == null) {
+                    return false;
+                }
+                Entry[] next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = entry;
+                if (entries.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        // Returns true when this removal emptied the slot and retired it
+        boolean remove(Entry entry) {
+            while (true) {
+                Entry[] current = entries.get();
+                if (current == null) {
+                    return false;
+                }
+                int index = indexOf(current, entry);
+                if (index < 0) {
+                    return false;
+                }
+                if (current.length == 1) {
+                    if (entries.compareAndSet(current, null)) {
+                        return true;
+                    }
+                    continue;
+                }
+                Entry[] next = new Entry[current.length - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+                if (entries.compareAndSet(current, next)) {
+                    return false;
+                }
+            }
+        }
+
+        private static int indexOf(Entry[] entries, Entry entry) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i] == entry) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.security.session;
+
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Binary attribute format: the login SecurityContext and simple values are written field by field,
+// anything else falls back to Java serialization
+public class SessionAttributeCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte SECURITY_CONTEXT = 5;
+    private static final byte SERIALIZED = 127;
+
+    private static final int ENABLED = 1;
+    private static final int ACCOUNT_NON_EXPIRED = 1 << 1;
+    private static final int CREDENTIALS_NON_EXPIRED = 1 << 2;
+    private static final int ACCOUNT_NON_LOCKED = 1 << 3;
+    private static final int HAS_DETAILS = 1 << 4;
+
+    private final Function<String, GrantedAuthority> authorityResolver;
+    private final SerializingConverter serializer = new SerializingConverter();
+    private final DeserializingConverter deserializer = new DeserializingConverter();
+
+    public SessionAttributeCodec(Function<String, GrantedAuthority> authorityResolver) {
+        this.authorityResolver = authorityResolver;
+    }
+
+    public byte[] encode(Map<String, Object> attributes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(attributes.size());
+            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                out.writeUTF(attribute.getKey());
+                writeValue(out, attribute.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode session attributes", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public Map<String, Object> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported session attribute format: " + version);
+            }
+            int count = in.readInt();
+            Map<String, Object> attributes = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                attributes.put(in.readUTF(), readValue(in));
+            }
+            return attributes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode session attributes", e);
+        }
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            out.writeUTF(string);
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof Integer integer) {
+            out.writeByte(INTEGER);
+            out.writeInt(integer);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof SecurityContext context && isCompact(context)) {
+            out.writeByte(SECURITY_CONTEXT);
+            writeSecurityContext(out, context);
+        } else {
+            byte[] serialized = serializer.convert(value);
+            out.writeByte(SERIALIZED);
+            out.writeInt(serialized.length);
+            out.write(serialized);
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case NULL -> null;
+            case STRING -> in.readUTF();
+            case BOOLEAN -> in.readBoolean();
+            case INTEGER -> in.readInt();
+            case LONG -> in.readLong();
+            case SECURITY_CONTEXT -> readSecurityContext(in);
+            case SERIALIZED -> {
+                byte[] serialized = new byte[in.readInt()];
+                in.readFully(serialized);
+                yield deserializer.convert(serialized);
+            }
+            default -> throw new IllegalStateException("Unknown session attribute type: " + type);
+        };
+    }
+
+    // Only the shape produced by form login is written compactly
+    private static boolean isCompact(SecurityContext context) {
+        if (context.getClass() != SecurityContextImpl.class) {
+            return false;
+        }
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || authentication.getClass() != UsernamePasswordAuthenticationToken.class
+                || !authentication.isAuthenticated() || authentication.getCredentials() != null) {
+            return false;
+        }
+        if (!(authentication.getPrincipal() instanceof User user) || user.getClass() != User.class
+                || user.getPassword() != null) {
+            return false;
+        }
+        Object details = authentication.getDetails();
+        if (details != null && details.getClass() != WebAuthenticationDetails.class) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (authority.getClass() != SimpleGrantedAuthority.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeSecurityContext(DataOutputStream out, SecurityContext context) throws IOException {
+        Authentication authentication = context.getAuthentication();
+        User user = (User) authentication.getPrincipal();
+        WebAuthenticationDetails details = (WebAuthenticationDetails) authentication.getDetails();
+
+        int flags = (user.isEnabled() ? ENABLED : 0)
+            | (user.isAccountNonExpired() ? ACCOUNT_NON_EXPIRED : 0)
+            | (user.isCredentialsNonExpired() ? CREDENTIALS_NON_EXPIRED : 0)
+            | (user.isAccountNonLocked() ? ACCOUNT_NON_LOCKED : 0)
+            | (details != null ? HAS_DETAILS : 0);
+
+        out.writeUTF(user.getUsername());
+        out.writeByte(flags);
+        out.writeShort(authentication.getAuthorities().size());
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            out.writeUTF(authority.getAuthority());
+        }
+        if (details != null) {
+            writeNullableString(out, details.getRemoteAddress());
+            writeNullableString(out, details.getSessionId());
+        }
+    }
+
+    private SecurityContext readSecurityContext(DataInputStream in) throws IOException {
+        String username = in.readUTF();
+        int flags = in.readByte();
+        int authorityCount = in.readShort();
+        List<GrantedAuthority> authorities = new ArrayList<>(authorityCount);
+        for (int i = 0; i < authorityCount; i++) {
+            authorities.add(authorityResolver.apply(in.readUTF()));
+        }
+
+        User user = new User(username, "",
+            (flags & ENABLED) != 0,
+            (flags & ACCOUNT_NON_EXPIRED) != 0,
+            (flags & CREDENTIALS_NON_EXPIRED) != 0,
+            (flags & ACCOUNT_NON_LOCKED) != 0,
+            authorities);
+        user.eraseCredentials();
+
+        UsernamePasswordAuthenticationToken authentication =
+            UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        if ((flags & HAS_DETAILS) != 0) {
+            authentication.setDetails(new WebAuthenticationDetails(readNullableString(in), readNullableString(in)));
+        }
+        return new SecurityContextImpl(authentication);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
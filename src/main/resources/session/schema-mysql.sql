@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS http_sessions (
+    primary_id CHAR(36) NOT NULL,
+    session_id CHAR(36) NOT NULL,
+    principal_name VARCHAR(100),
+    version BIGINT NOT NULL,
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    attributes MEDIUMBLOB NOT NULL,
+    CONSTRAINT http_sessions_pk PRIMARY KEY (primary_id),
+    UNIQUE INDEX http_sessions_ix1 (session_id),
+    INDEX http_sessions_ix2 (expiry_time),
+    INDEX http_sessions_ix3 (principal_name)
+) ENGINE=InnoDB ROW_FORMAT=DYNAMIC;
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS http_sessions (
+    primary_id CHAR(36) NOT NULL,
+    session_id CHAR(36) NOT NULL,
+    principal_name VARCHAR(100),
+    version BIGINT NOT NULL,
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    attributes BYTEA NOT NULL,
+    CONSTRAINT http_sessions_pk PRIMARY KEY (primary_id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS http_sessions_ix1 ON http_sessions (session_id);
+CREATE INDEX IF NOT EXISTS http_sessions_ix2 ON http_sessions (expiry_time);
+CREATE INDEX IF NOT EXISTS http_sessions_ix3 ON http_sessions (principal_name);
@@ -250,7 +250,7 @@
             <div class="info-item">
                 <span class="info-label">Email:</span>
                 <span class="info-value">
-                    <sec:authentication property="principal.email"/>
+                    <c:out value="${email}"/>
                 </span>
             </div>
             <div class="info-item">
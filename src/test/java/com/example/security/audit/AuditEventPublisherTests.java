@@ -0,0 +1,155 @@
+package com.example.security.audit;
+
+import com.example.security.dto.AuditEventSummary;
+import com.example.security.dto.AuditEventWindow;
+import com.example.security.dto.AuditRollupSummary;
+import com.example.security.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The scheduled flush is pushed out of the way so the test thread is the only consumer of the ring
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:audit",
+    "app.audit.flush-interval=1h"
+})
+class AuditEventPublisherTests {
+
+    @Autowired
+    private AuditEventPublisher auditEventPublisher;
+
+    @Autowired
+    private AuditQueryService auditQueryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void flushWritesEventsAndPerMinuteCounts() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        for (int i = 0; i < 3; i++) {
+            auditEventPublisher.publish(AuditEventType.LOGIN_FAILURE, "audit-user", "10.0.0.1", "bad_credentials");
+        }
+        auditEventPublisher.flush();
+        auditEventPublisher.publish(AuditEventType.LOGIN_FAILURE, "audit-user", "10.0.0.1", "bad_credentials");
+        auditEventPublisher.publish(AuditEventType.LOGIN_SUCCESS, "audit-user", "10.0.0.1", null);
+        auditEventPublisher.flush();
+        LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+
+        AuditEventWindow first = auditQueryService.findEventsBefore(null, "audit-user", from, to, null, 3);
+        assertEquals(3, first.content().size());
+        assertEquals("LOGIN_SUCCESS", first.content().get(0).type());
+        AuditEventWindow second = auditQueryService.findEventsBefore(null, "audit-user", from, to,
+            first.nextCursor(), 3);
+        assertEquals(2, second.content().size());
+        assertNull(second.nextCursor());
+        assertTrue(second.content().stream().map(AuditEventSummary::type).allMatch("LOGIN_FAILURE"::equals));
+
+        // Both batches land in the same minute unless the test straddles a minute boundary
+        long failures = auditQueryService.findRollups(AuditEventType.LOGIN_FAILURE, from, to).stream()
+            .mapToLong(AuditRollupSummary::count)
+            .sum();
+        assertEquals(4, failures);
+    }
+
+    @Test
+    void accountChangesAreAuditedOnlyWhenCommittedAndApplied() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        userService.lockAccounts(List.of("manager", "no-such-user"));
+        userService.lockAccounts(List.of("manager"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.disableAccount("manager");
+            status.setRollbackOnly();
+        });
+        userService.unlockAccount("manager");
+        auditEventPublisher.flush();
+        LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+
+        List<String> types = auditQueryService.findEventsBefore(null, "manager", from, to, null, 10).content().stream()
+            .map(AuditEventSummary::type)
+            .toList();
+        assertEquals(List.of("ACCOUNT_UNLOCKED", "ACCOUNT_LOCKED"), types);
+        // Bulk changes record how many of the requested accounts actually changed
+        assertEquals(List.of("bulk, 1 of 2 changed"),
+            auditQueryService.findEventsBefore(null, "no-such-user", from, to, null, 10).content().stream()
+                .map(AuditEventSummary::detail)
+                .toList());
+    }
+
+    @Test
+    void rollupsAreCountedWhenTheDriverHidesBatchCounts() {
+        JdbcTemplate hidingCounts = new JdbcTemplate(dataSource) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                int[][] counts = super.batchUpdate(sql, batchArgs, batchSize, pss);
+                for (int[] batch : counts) {
+                    Arrays.fill(batch, Statement.SUCCESS_NO_INFO);
+                }
+                return counts;
+            }
+        };
+        AuditEventPublisher publisher = new AuditEventPublisher(hidingCounts, transactionManager,
+            new SimpleMeterRegistry(), true, 16, 500, Duration.ofHours(1), false);
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+        long before = passwordChangeCount(from, to);
+        try {
+            publisher.publish(AuditEventType.PASSWORD_CHANGED, "no-info-user", "10.0.0.1", null);
+            publisher.publish(AuditEventType.PASSWORD_CHANGED, "no-info-user", "10.0.0.1", null);
+            publisher.flush();
+            publisher.publish(AuditEventType.PASSWORD_CHANGED, "no-info-user", "10.0.0.1", null);
+            publisher.flush();
+        } finally {
+            publisher.destroy();
+        }
+
+        assertEquals(before + 3, passwordChangeCount(from, to));
+    }
+
+    private long passwordChangeCount(LocalDateTime from, LocalDateTime to) {
+        return auditQueryService.findRollups(AuditEventType.PASSWORD_CHANGED, from, to).stream()
+            .mapToLong(AuditRollupSummary::count)
+            .sum();
+    }
+
+    @Test
+    void fullRingRefusesOffers() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+        assertEquals(4, ring.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, ring.drainTo(drained, 10));
+        assertEquals(List.of(0, 1, 2, 3), drained);
+        assertTrue(ring.offer(5));
+    }
+}
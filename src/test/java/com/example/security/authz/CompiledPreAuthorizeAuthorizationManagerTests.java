@@ -0,0 +1,93 @@
+package com.example.security.authz;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledPreAuthorizeAuthorizationManagerTests {
+
+    private static final List<String> METHODS = List.of(
+        "userOnly", "managerOrAdmin", "authenticated", "readPrivilege", "everyone", "nobody", "complex");
+
+    private static final List<Authentication> USERS = List.of(
+        new AnonymousAuthenticationToken("key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")),
+        UsernamePasswordAuthenticationToken.authenticated("user", null,
+            AuthorityUtils.createAuthorityList("ROLE_USER", "READ_PRIVILEGE")),
+        UsernamePasswordAuthenticationToken.authenticated("manager", null,
+            AuthorityUtils.createAuthorityList("ROLE_MANAGER")),
+        UsernamePasswordAuthenticationToken.authenticated("admin", null,
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void agreesWithSpel() throws Exception {
+        PreAuthorizeAuthorizationManager spel = new PreAuthorizeAuthorizationManager();
+        spel.setExpressionHandler(new DefaultMethodSecurityExpressionHandler());
+        CompiledPreAuthorizeAuthorizationManager compiled = new CompiledPreAuthorizeAuthorizationManager(
+            new PreAuthorizeAuthorizationManager(), () -> meterRegistry);
+
+        Guarded target = new Guarded();
+        for (String name : METHODS) {
+            SimpleMethodInvocation invocation = new SimpleMethodInvocation(target, Guarded.class.getMethod(name));
+            for (Authentication authentication : USERS) {
+                assertEquals(spel.authorize(() -> authentication, invocation).isGranted(),
+                    compiled.authorize(() -> authentication, invocation).isGranted(),
+                    name + " as " + authentication.getName());
+            }
+        }
+    }
+
+    @Test
+    void recordsDecisionsPerMethodAndStrategy() throws Exception {
+        CompiledPreAuthorizeAuthorizationManager compiled = new CompiledPreAuthorizeAuthorizationManager(
+            new PreAuthorizeAuthorizationManager(), () -> meterRegistry);
+        Guarded target = new Guarded();
+
+        compiled.authorize(() -> USERS.get(1), new SimpleMethodInvocation(target, Guarded.class.getMethod("userOnly")));
+        compiled.authorize(() -> USERS.get(2), new SimpleMethodInvocation(target, Guarded.class.getMethod("userOnly")));
+        compiled.authorize(() -> USERS.get(1), new SimpleMethodInvocation(target, Guarded.class.getMethod("complex")));
+
+        assertEquals(1, meterRegistry.get("method.authorization").tags("method", "Guarded.userOnly",
+            "strategy", "compiled", "decision", "granted").timer().count());
+        assertEquals(1, meterRegistry.get("method.authorization").tags("method", "Guarded.userOnly",
+            "strategy", "compiled", "decision", "denied").timer().count());
+        assertEquals(1, meterRegistry.get("method.authorization").tags("method", "Guarded.complex",
+            "strategy", "spel").timers().stream().mapToLong(timer -> timer.count()).sum());
+    }
+
+    static class Guarded {
+
+        @PreAuthorize("hasRole('USER')")
+        public void userOnly() {}
+
+        @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+        public void managerOrAdmin() {}
+
+        @PreAuthorize("isAuthenticated()")
+        public void authenticated() {}
+
+        @PreAuthorize("hasAuthority('READ_PRIVILEGE')")
+        public void readPrivilege() {}
+
+        @PreAuthorize("permitAll")
+        public void everyone() {}
+
+        @PreAuthorize("denyAll")
+        public void nobody() {}
+
+        @PreAuthorize("hasRole('ADMIN') or authentication.name == 'user'")
+        public void complex() {}
+    }
+}
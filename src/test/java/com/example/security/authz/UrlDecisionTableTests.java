@@ -0,0 +1,88 @@
+package com.example.security.authz;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlDecisionTableTests {
+
+    private static final List<String> PATHS = List.of(
+        "/", "/home", "/home/", "/login", "/register", "/css/site.css", "/css", "/js/app/main.js",
+        "/actuator/health", "/actuator/metrics", "/api/public/info", "/api/public", "/api/auth/token",
+        "/api/user/data", "/api/manager/data", "/api/admin/users", "/api/other", "/admin", "/admin/",
+        "/admin/settings", "/dashboard/admin/x", "/dashboard/manager", "/manager/dashboard", "/user/dashboard",
+        "/profile/edit", "/profiles", "/unknown/path", "/user-x",
+        // Percent-encoded and matrix-variable forms that the MVC handler mapping decodes
+        "/%61dmin/settings", "/api/%61dmin/users", "/actuator/%73ecurityfilters", "/admin;x=1/settings",
+        "/%6Danager/dashboard", "/api/public%2Finfo");
+
+    private static final List<Authentication> USERS = List.of(
+        new AnonymousAuthenticationToken("key", "anonymous", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")),
+        UsernamePasswordAuthenticationToken.authenticated("user", null,
+            AuthorityUtils.createAuthorityList("ROLE_USER", "READ_PRIVILEGE")),
+        UsernamePasswordAuthenticationToken.authenticated("manager", null,
+            AuthorityUtils.createAuthorityList("ROLE_MANAGER")),
+        UsernamePasswordAuthenticationToken.authenticated("admin", null,
+            AuthorityUtils.createAuthorityList("ROLE_ADMIN")),
+        UsernamePasswordAuthenticationToken.authenticated("nobody", null, List.of()));
+
+    private final UrlDecisionTable table = UrlDecisionTable.compile(UrlRules.RULES);
+
+    @Test
+    void agreesWithMatcherChain() {
+        AuthorizationManager<HttpServletRequest> chain = UrlRuleMatcherChain.build(UrlRules.RULES);
+
+        for (String path : PATHS) {
+            for (Authentication authentication : USERS) {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+                boolean expected = chain.authorize(() -> authentication, request).isGranted();
+                boolean actual = table.authorize(() -> authentication, new RequestAuthorizationContext(request))
+                    .isGranted();
+                assertEquals(expected, actual, path + " as " + authentication.getName());
+            }
+        }
+    }
+
+    @Test
+    void encodedPathsAreMatchedDecoded() {
+        Authentication user = USERS.get(1);
+
+        for (String path : List.of("/%61dmin/settings", "/api/%61dmin/users", "/actuator/%73ecurityfilters")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            assertFalse(table.authorize(() -> user, new RequestAuthorizationContext(request)).isGranted(), path);
+        }
+        assertTrue(table.isGranted("/actuator/%73ecurityfilters", USERS.get(3)));
+    }
+
+    @Test
+    void pathIsTakenWithinTheContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/%61dmin/settings");
+        request.setContextPath("/app");
+
+        assertFalse(table.authorize(() -> USERS.get(1), new RequestAuthorizationContext(request)).isGranted());
+        assertTrue(table.authorize(() -> USERS.get(3), new RequestAuthorizationContext(request)).isGranted());
+    }
+
+    @Test
+    void firstMatchingRuleWins() {
+        UrlDecisionTable shadowed = UrlDecisionTable.compile(List.of(
+            UrlRule.hasAnyRole(List.of("/reports/**"), "ADMIN"),
+            UrlRule.permitAll("/reports/public")));
+        Authentication user = USERS.get(1);
+
+        assertFalse(shadowed.isGranted("/reports/public", user));
+        assertTrue(shadowed.isGranted("/reports/public", USERS.get(3)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.security.authz;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+
+import java.util.List;
+
+// The same rules evaluated the way requestMatchers(...) chains do, as a reference for the decision table
+public final class UrlRuleMatcherChain {
+
+    private UrlRuleMatcherChain() {}
+
+    public static AuthorizationManager<HttpServletRequest> build(List<UrlRule> rules) {
+        PathPatternRequestMatcher.Builder matchers = PathPatternRequestMatcher.withDefaults();
+        RequestMatcherDelegatingAuthorizationManager.Builder builder = RequestMatcherDelegatingAuthorizationManager.builder();
+
+        for (UrlRule rule : rules) {
+            AuthorizationManager<RequestAuthorizationContext> manager = switch (rule.access()) {
+                case PERMIT_ALL -> (authentication, context) -> new AuthorizationDecision(true);
+                case AUTHENTICATED -> AuthenticatedAuthorizationManager.authenticated();
+                case HAS_ANY_ROLE -> AuthorityAuthorizationManager.hasAnyRole(rule.roles().toArray(String[]::new));
+            };
+            for (String pattern : rule.patterns()) {
+                builder.add(matchers.matcher(pattern), manager);
+            }
+        }
+        builder.add(AnyRequestMatcher.INSTANCE, AuthenticatedAuthorizationManager.authenticated());
+        return builder.build();
+    }
+}
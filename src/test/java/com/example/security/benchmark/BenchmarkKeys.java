@@ -0,0 +1,26 @@
+package com.example.security.benchmark;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// The app ships without signing keys; every benchmark run gets throwaway ones
+final class BenchmarkKeys {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private BenchmarkKeys() {}
+
+    static String jwtKeys() {
+        return "bench:" + randomSecret();
+    }
+
+    static String rememberMeKey() {
+        return randomSecret();
+    }
+
+    private static String randomSecret() {
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        return Base64.getEncoder().encodeToString(secret);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.security.benchmark;
+
+import com.example.security.SecurityApplication;
+import com.example.security.dto.UserRegistrationDto;
+import com.example.security.handler.CustomAuthenticationFailureHandler;
+import com.example.security.handler.CustomAuthenticationSuccessHandler;
+import com.example.security.service.CustomUserDetailsService;
+import com.example.security.service.RoleAuthorityTable;
+import com.example.security.service.UserDetailsCache;
+import com.example.security.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+// The login critical path piece by piece and end to end, against the real context on in-memory H2.
+// The seeded accounts carry cost-12 hashes, so the benchmark registers its own users at cost 4 and logs in as those;
+// that keeps the framework overhead visible. PasswordMatchBenchmark covers the hash itself.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginHotPathBenchmark {
+
+    private static final String USERNAME = "jmh-user";
+    private static final String PASSWORD = "Jmh@12345";
+    private static final int LOCKOUT_POOL_SIZE = 16;
+
+    private ConfigurableApplicationContext context;
+    private CustomUserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
+    private RoleAuthorityTable roleAuthorityTable;
+    private TargetUrlHandler successHandler;
+    private CustomAuthenticationFailureHandler failureHandler;
+    private UserService userService;
+    private MockMvc mockMvc;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(SecurityApplication.class).run(
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_ON_EXIT=FALSE",
+            "--app.seed.mode=sync",
+            "--app.security.password.bcrypt-strength=4",
+            "--app.security.remember-me.key=" + BenchmarkKeys.rememberMeKey(),
+            "--logging.level.root=WARN",
+            "--logging.level.com.example.security=WARN",
+            "--logging.level.org.springframework.security=WARN",
+            "--logging.file.name=");
+
+        userDetailsService = context.getBean(CustomUserDetailsService.class);
+        userDetailsCache = context.getBean(UserDetailsCache.class);
+        roleAuthorityTable = context.getBean(RoleAuthorityTable.class);
+        successHandler = new TargetUrlHandler();
+        failureHandler = context.getBean(CustomAuthenticationFailureHandler.class);
+        userService = context.getBean(UserService.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+            .apply(springSecurity())
+            .build();
+
+        // Registered through the application's own encoder, which the strength argument above sets to cost 4
+        register(USERNAME);
+        userService.addRoleToUser(USERNAME, "ROLE_ADMIN");
+        for (int i = 0; i < LOCKOUT_POOL_SIZE; i++) {
+            register(lockoutName(i));
+        }
+
+        UserDetails details = userDetailsService.loadUserByUsername(USERNAME);
+        authentication = UsernamePasswordAuthenticationToken.authenticated(details, null, details.getAuthorities());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsernameCached() {
+        return userDetailsService.loadUserByUsername(USERNAME);
+    }
+
+    // Includes the eviction, so this is the cost of a cache miss: one JOIN FETCH plus the authority expansion
+    @Benchmark
+    public UserDetails loadUserByUsernameUncached() {
+        userDetailsCache.evict(USERNAME);
+        return userDetailsService.loadUserByUsername(USERNAME);
+    }
+
+    // What CustomUserDetailsService.getAuthorities delegates to
+    @Benchmark
+    public Collection<GrantedAuthority> getAuthorities() {
+        return roleAuthorityTable.authoritiesFor(List.of("ROLE_ADMIN"));
+    }
+
+    @Benchmark
+    public String determineTargetUrl() {
+        return successHandler.targetUrl(authentication);
+    }
+
+    // Five bad passwords for a real account: four in-memory failures, then the synchronous lock UPDATE
+    @Benchmark
+    public int failureHandlerLockout(LockoutAccount account) throws Exception {
+        int status = 0;
+        for (int attempt = 0; attempt < 5; attempt++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/perform-login");
+            request.setParameter("username", account.username);
+            request.setRemoteAddr("10.0." + account.index + "." + attempt);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            failureHandler.onAuthenticationFailure(request, response, new BadCredentialsException("Bad credentials"));
+            status = response.getStatus();
+        }
+        return status;
+    }
+
+    @Benchmark
+    public int performLogin() throws Exception {
+        return mockMvc.perform(formLogin("/perform-login").user(USERNAME).password(PASSWORD))
+            .andReturn().getResponse().getStatus();
+    }
+
+    private void register(String username) {
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(username);
+        dto.setEmail(username + "@bench.local");
+        dto.setPassword(PASSWORD);
+        dto.setConfirmPassword(PASSWORD);
+        dto.setFirstName("Bench");
+        dto.setLastName("User");
+        userService.registerNewUser(dto);
+    }
+
+    private static String lockoutName(int index) {
+        return "jmh-lockout-" + index;
+    }
+
+    // Each lockout run needs an unlocked account with no failures counted against it; kept in its own state so the
+    // per-invocation reset only runs for that benchmark
+    @State(Scope.Benchmark)
+    public static class LockoutAccount {
+
+        private int index;
+        private String username;
+
+        @Setup(Level.Invocation)
+        public void next(LoginHotPathBenchmark benchmark) {
+            index = (index + 1) % LOCKOUT_POOL_SIZE;
+            username = lockoutName(index);
+            benchmark.userService.unlockAccount(username);
+        }
+    }
+
+    private static final class TargetUrlHandler extends CustomAuthenticationSuccessHandler {
+
+        TargetUrlHandler() {
+            super(null, null, null, null);
+        }
+
+        String targetUrl(Authentication authentication) {
+            return determineTargetUrl(authentication);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.security.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Cold-starts the exploded fast-start build in a fresh JVM per run and measures the time from process launch
+// to the first successful form login, i.e. until the context, Hibernate, the filter chain and the seed
+// are all in place. Compares plain JVM, CDS only, and AOT plus CDS.
+// mvn -P fast-start -DskipTests package && mvn -P startup-benchmark test-compile exec:exec [-Dstartup.runs=5]
+public class StartupTimeComparison {
+
+    private static final String MAIN_CLASS = "com.example.security.SecurityApplication";
+    private static final Duration GIVE_UP_AFTER = Duration.ofMinutes(3);
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Path.of(System.getProperty("startup.dir", "target/fast-start")).toAbsolutePath();
+        int runs = Integer.getInteger("startup.runs", 5);
+        if (!Files.exists(dir.resolve("application.jsa"))) {
+            throw new IllegalStateException("No CDS archive in " + dir + "; run mvn -P fast-start package first");
+        }
+
+        String classPath = classPath(dir);
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jvm", List.of());
+        modes.put("cds", List.of("-XX:SharedArchiveFile=application.jsa"));
+        modes.put("aot+cds", List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"));
+
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : modes.entrySet()) {
+            String mode = entry.getKey();
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstLogin(dir, classPath, entry.getValue());
+                System.out.printf("%-8s run %d: %d ms%n", mode, run + 1, millis[run]);
+            }
+            Arrays.sort(millis);
+            results.put(mode, millis);
+        }
+
+        System.out.printf("%nTime to first successful login, %d cold starts each%n", runs);
+        System.out.printf("%-8s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms");
+        results.forEach((mode, millis) -> System.out.printf("%-8s %10d %10d %10d%n", mode,
+            millis[0], millis[millis.length / 2], millis[millis.length - 1]));
+    }
+
+    private static long timeToFirstLogin(Path dir, String classPath, List<String> jvmOptions) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add(MAIN_CLASS);
+        command.add("--server.port=" + port);
+        command.add("--app.security.remember-me.key=" + BenchmarkKeys.rememberMeKey());
+        command.add("--logging.file.name=");
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+            .directory(dir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().put("CLASSPATH", classPath);
+
+        String baseUrl = "http://localhost:" + port;
+        long started = System.nanoTime();
+        Process process = builder.start();
+        try (HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .cookieHandler(new CookieManager())
+                .build()) {
+            while (System.nanoTime() - started < GIVE_UP_AFTER.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue());
+                }
+                try {
+                    // Refused until Tomcat listens, then redirected back to the login page until the seed has
+                    // committed
+                    if (formLogin(client, baseUrl)) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No successful login within " + GIVE_UP_AFTER);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // The same two requests a browser makes: the login page for its CSRF token, then the form post
+    private static boolean formLogin(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+            .timeout(Duration.ofSeconds(30))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher csrf = CSRF_INPUT.matcher(page.body());
+        if (page.statusCode() != 200 || !csrf.find()) {
+            return false;
+        }
+
+        String form = "username=admin&password=" + URLEncoder.encode("Admin@123", StandardCharsets.UTF_8)
+            + "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/perform-login"))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .timeout(Duration.ofSeconds(30))
+            .build(), HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() == 302
+            && response.headers().firstValue("Location").orElse("").contains("/dashboard");
+    }
+
+    // Must match src/fast-start/run.sh exactly, or the JVM refuses the CDS archive
+    private static String classPath(Path dir) throws IOException {
+        List<String> jars = new ArrayList<>();
+        for (String lib : List.of("WEB-INF/lib", "WEB-INF/lib-provided")) {
+            try (Stream<Path> files = Files.list(dir.resolve(lib))) {
+                files.filter(file -> file.toString().endsWith(".jar"))
+                    .map(file -> lib + "/" + file.getFileName())
+                    .forEach(jars::add);
+            }
+        }
+        jars.sort(null);
+        return String.join(File.pathSeparator, jars);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.security.benchmark;
+
+import com.example.security.SecurityApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Boots the app once per thread model and drives the same closed loop of bearer-token requests against a
+// JDBC-backed endpoint, then prints throughput and latency percentiles side by side.
+// mvn -P load-test test-compile exec:exec [-Dload.connections=10000 -Dload.duration=30s -Dload.path=...]
+// 10k connections needs the open-file limit raised on both ends (ulimit -n 65536).
+public class ThreadModeLoadComparison {
+
+    private static final int CONNECTIONS_PER_CLIENT = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int connections = Integer.getInteger("load.connections", 10_000);
+        Duration warmup = parseDuration(System.getProperty("load.warmup", "10s"));
+        Duration duration = parseDuration(System.getProperty("load.duration", "30s"));
+        String path = System.getProperty("load.path", "/api/admin/users?size=20");
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual")) {
+            results.add(run(mode, connections, warmup, duration, path));
+        }
+
+        System.out.printf("%nGET %s, %d connections, %ds measured%n", path, connections, duration.toSeconds());
+        System.out.printf("%-10s %12s %10s %10s %10s %10s%n", "mode", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %12.0f %10.2f %10.2f %10.2f %10d%n", result.mode, result.throughput,
+                result.percentileMillis(0.50), result.percentileMillis(0.99), result.percentileMillis(1.0),
+                result.errors);
+        }
+    }
+
+    private static Result run(String mode, int connections, Duration warmup, Duration duration, String path)
+            throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SecurityApplication.class);
+        if (mode.equals("virtual")) {
+            builder.profiles("virtual");
+        }
+
+        // Passed as arguments so they override application.properties
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--app.security.password.bcrypt-strength=4",
+                "--app.security.jwt.enabled=true",
+                "--app.security.jwt.keys=" + BenchmarkKeys.jwtKeys(),
+                "--app.security.remember-me.key=" + BenchmarkKeys.rememberMeKey(),
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.security=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.file.name=",
+                // Same connection limits for both runs, so only the thread model differs
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=1000",
+                "--spring.datasource.hikari.maximum-pool-size=32",
+                "--spring.datasource.hikari.connection-timeout=5000")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String token = fetchToken(baseUrl);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+            return drive(mode, connections, warmup, duration, request);
+        }
+    }
+
+    private static Result drive(String mode, int connections, Duration warmup, Duration duration,
+                                HttpRequest request) throws InterruptedException {
+        // Several clients spread the connections over more than one selector thread
+        int clientCount = Math.max(1, (connections + CONNECTIONS_PER_CLIENT - 1) / CONNECTIONS_PER_CLIENT);
+        ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        List<HttpClient> clients = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            clients.add(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build());
+        }
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        Samples[] samples = new Samples[connections];
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                Samples own = samples[i] = new Samples();
+                HttpClient client = clients.get(i % clientCount);
+                workers.submit(() -> {
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= measureUntil) {
+                            return;
+                        }
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= measureUntil) {
+                            if (ok) {
+                                own.add(end - start);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        clients.forEach(HttpClient::close);
+        clientExecutor.close();
+
+        int total = 0;
+        for (Samples own : samples) {
+            total += own.size;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Samples own : samples) {
+            System.arraycopy(own.values, 0, latencies, offset, own.size);
+            offset += own.size;
+        }
+        Arrays.sort(latencies);
+        return new Result(mode, total / (double) duration.toSeconds(), latencies, errors.get());
+    }
+
+    private static String fetchToken(String baseUrl) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                mapper.writeValueAsString(Map.of("username", "admin", "password", "Admin@123"))))
+            .build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Token request failed with " + response.statusCode());
+            }
+            return mapper.readTree(response.body()).get("accessToken").asText();
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static final class Samples {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private record Result(String mode, double throughput, long[] latencies, long errors) {
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
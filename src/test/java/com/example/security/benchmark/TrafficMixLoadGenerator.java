@@ -0,0 +1,499 @@
+package com.example.security.benchmark;
+
+import com.example.security.SecurityApplication;
+import com.example.security.dto.UserRegistrationDto;
+import com.example.security.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Boots the app on H2, registers load.users accounts through UserService, then drives load.virtual-users
+// closed-loop clients through a weighted mix of form logins (good and bad), remember-me auto-logins, dashboard
+// views and bearer-token API calls at load.rate requests per second in total. Latency is measured from each
+// request's scheduled start, so a stalled server shows up in the percentiles instead of lowering the rate.
+// mvn -P traffic-mix test-compile exec:exec [-Dload.users=5000 -Dload.rate=500 -Dload.duration=120s
+//     -Dload.mix=login=10,login-bad=5,remember-me=10,dashboard=45,api=30]
+public class TrafficMixLoadGenerator {
+
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final String PASSWORD = "Load@1234";
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    enum Operation {
+        LOGIN("login"),
+        LOGIN_BAD("login-bad"),
+        REMEMBER_ME("remember-me"),
+        DASHBOARD("dashboard"),
+        API("api");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    // Recorded separately: the login page view that precedes every form login for its CSRF token
+    enum Endpoint {
+        LOGIN_PAGE("GET /login"),
+        LOGIN("POST /perform-login"),
+        LOGIN_BAD("POST /perform-login (bad)"),
+        REMEMBER_ME("GET /user/dashboard (remember-me)"),
+        DASHBOARD("GET /user/dashboard"),
+        API("GET /api/user/data");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("load.users", 2000);
+        int virtualUsers = Integer.getInteger("load.virtual-users", 100);
+        double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+        Duration warmup = parseDuration(System.getProperty("load.warmup", "15s"));
+        Duration duration = parseDuration(System.getProperty("load.duration", "60s"));
+        Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix",
+            "login=10,login-bad=5,remember-me=10,dashboard=45,api=30"));
+        long seed = Long.getLong("load.seed", 42);
+        int bcryptStrength = Integer.getInteger("load.bcrypt-strength", 10);
+        if (users < virtualUsers * 2) {
+            throw new IllegalArgumentException("load.users must be at least twice load.virtual-users");
+        }
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SecurityApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:traffic-mix;DB_CLOSE_ON_EXIT=FALSE",
+                "--app.security.password.bcrypt-strength=" + bcryptStrength,
+                "--app.security.jwt.enabled=true",
+                "--app.security.jwt.keys=" + BenchmarkKeys.jwtKeys(),
+                "--app.security.remember-me.key=" + BenchmarkKeys.rememberMeKey(),
+                // Every client comes from 127.0.0.1; the per-IP window would otherwise block all logins
+                "--app.security.login-attempts.max-per-ip=100000",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.security=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.file.name=")) {
+            registerUsers(context.getBean(UserService.class), users);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : Endpoint.values()) {
+                stats.put(endpoint, new Stats());
+            }
+            drive(baseUrl, users, virtualUsers, rate, warmup, duration, mix, seed, stats);
+            report(stats, virtualUsers, rate, duration, mix);
+        }
+    }
+
+    private static void registerUsers(UserService userService, int users) throws Exception {
+        long started = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> registrations = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                UserRegistrationDto dto = new UserRegistrationDto();
+                dto.setUsername(username(i));
+                dto.setEmail(username(i) + "@load.example.com");
+                dto.setPassword(PASSWORD);
+                dto.setConfirmPassword(PASSWORD);
+                dto.setFirstName("Load");
+                dto.setLastName("User " + i);
+                registrations.add(pool.submit(() -> userService.registerNewUser(dto)));
+            }
+            for (Future<?> registration : registrations) {
+                registration.get();
+            }
+        }
+        System.out.printf("Registered %d users in %d s%n", users,
+            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+
+    private static void drive(String baseUrl, int users, int virtualUsers, double rate, Duration warmup,
+                              Duration duration, Map<Operation, Integer> mix, long seed,
+                              Map<Endpoint, Stats> stats) throws InterruptedException {
+        long intervalNanos = (long) (virtualUsers * 1_000_000_000L / rate);
+        long begin = System.nanoTime();
+        long measureFrom = begin + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < virtualUsers; i++) {
+                VirtualUser user = new VirtualUser(client, baseUrl, i, virtualUsers, users,
+                    new SplittableRandom(seed + i), stats);
+                // Staggered so the clients do not fire in lockstep
+                long firstStart = begin + intervalNanos * i / virtualUsers;
+                workers.submit(() -> user.run(mix, firstStart, intervalNanos, measureFrom, measureUntil));
+            }
+        }
+        client.close();
+    }
+
+    private static void report(Map<Endpoint, Stats> stats, int virtualUsers, double rate, Duration duration,
+                               Map<Operation, Integer> mix) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%n%d clients, target %.0f operations/s, %.0f s measured, mix %s%n",
+            virtualUsers, rate, seconds, mix);
+        System.out.println("Response time from scheduled start, in ms (service time p99 for comparison)");
+        System.out.printf("%-34s %9s %8s %8s %8s %8s %9s %9s %10s %7s%n", "endpoint", "count", "req/s",
+            "p50", "p90", "p99", "p99.9", "max", "svc p99", "errors");
+
+        long total = 0;
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Histogram response = entry.getValue().responseMicros;
+            Histogram service = entry.getValue().serviceMicros;
+            total += response.getTotalCount();
+            System.out.printf("%-34s %9d %8.1f %8.2f %8.2f %8.2f %9.2f %9.2f %10.2f %7d%n",
+                entry.getKey().label, response.getTotalCount(), response.getTotalCount() / seconds,
+                millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                response.getMaxValue() / 1000.0, millis(service, 99), entry.getValue().errors.get());
+        }
+        System.out.printf("%-34s %9d %8.1f%n", "total", total, total / seconds);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? Double.NaN : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<String, Operation> byKey = new HashMap<>();
+        for (Operation operation : Operation.values()) {
+            byKey.put(operation.key, operation);
+        }
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split("=");
+            Operation operation = byKey.get(weight[0].trim());
+            if (operation == null || weight.length != 2) {
+                throw new IllegalArgumentException("Bad load.mix entry '" + part + "', expected one of "
+                    + byKey.keySet() + " with a weight");
+            }
+            mix.put(operation, Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static String username(int index) {
+        return "load-user-" + index;
+    }
+
+    private static final class Stats {
+        private final Histogram responseMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram serviceMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+    }
+
+    // One browser-like client: its own cookies, a remember-me user and a bearer token, and a private
+    // slice of the accounts to log in as, so no two clients ever hold a session for the same user
+    private static final class VirtualUser {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final SplittableRandom random;
+        private final Map<Endpoint, Stats> stats;
+        private final Map<String, String> cookies = new HashMap<>();
+        private final List<String> loginUsers = new ArrayList<>();
+        private final int index;
+        private final String rememberMeUser;
+        private String rememberMeCookie;
+        private String accessToken;
+        private boolean measuring;
+
+        VirtualUser(HttpClient client, String baseUrl, int index, int virtualUsers, int users,
+                    SplittableRandom random, Map<Endpoint, Stats> stats) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.random = random;
+            this.stats = stats;
+            this.index = index;
+            this.rememberMeUser = username(index);
+            for (int i = index + virtualUsers; i < users; i += virtualUsers) {
+                loginUsers.add(username(i));
+            }
+        }
+
+        void run(Map<Operation, Integer> mix, long firstStart, long intervalNanos, long measureFrom,
+                 long measureUntil) {
+            try {
+                prepare();
+            } catch (Exception e) {
+                System.err.println("Client setup failed: " + e);
+                return;
+            }
+
+            int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+            for (long scheduled = firstStart; scheduled < measureUntil; scheduled += intervalNanos) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                measuring = scheduled >= measureFrom;
+                try {
+                    perform(pick(mix, totalWeight), scheduled);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void prepare() throws IOException, InterruptedException {
+            login(rememberMeUser, PASSWORD, true, System.nanoTime(), false);
+            rememberMeCookie = cookies.get("remember-me");
+            if (rememberMeCookie == null) {
+                throw new IllegalStateException("No remember-me cookie for " + rememberMeUser);
+            }
+            cookies.clear();
+            refreshToken();
+            login(loginUsers.get(random.nextInt(loginUsers.size())), PASSWORD, false, System.nanoTime(), false);
+        }
+
+        private Operation pick(Map<Operation, Integer> mix, int totalWeight) {
+            int ticket = random.nextInt(totalWeight);
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                ticket -= entry.getValue();
+                if (ticket < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Empty traffic mix");
+        }
+
+        private void perform(Operation operation, long scheduled) throws InterruptedException {
+            try {
+                switch (operation) {
+                    case LOGIN -> login(loginUsers.get(random.nextInt(loginUsers.size())), PASSWORD, false,
+                        scheduled, true);
+                    case LOGIN_BAD -> loginWithBadPassword(scheduled);
+                    case REMEMBER_ME -> rememberMeLogin(scheduled);
+                    case DASHBOARD -> dashboard(scheduled);
+                    case API -> api(scheduled);
+                }
+            } catch (IOException e) {
+                error(endpointFor(operation));
+            }
+        }
+
+        private boolean login(String username, String password, boolean rememberMe, long scheduled,
+                              boolean record) throws IOException, InterruptedException {
+            long pageStart = System.nanoTime();
+            HttpResponse<String> page = send(get("/login"), HttpResponse.BodyHandlers.ofString());
+            Matcher csrf = CSRF_INPUT.matcher(page.body());
+            boolean pageOk = page.statusCode() == 200 && csrf.find();
+            if (record) {
+                record(Endpoint.LOGIN_PAGE, scheduled, pageStart, pageOk);
+            }
+            if (!pageOk) {
+                throw new IOException("Login page returned " + page.statusCode() + " without a CSRF token");
+            }
+
+            String form = "username=" + encode(username) + "&password=" + encode(password)
+                + "&_csrf=" + encode(csrf.group(1)) + (rememberMe ? "&remember-me=on" : "");
+            long postStart = System.nanoTime();
+            HttpResponse<Void> response = send(request("/perform-login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)), HttpResponse.BodyHandlers.discarding());
+            boolean ok = response.statusCode() == 302
+                && response.headers().firstValue("Location").orElse("").contains("/dashboard");
+            if (record) {
+                // Measured from the scheduled start, so the page view above counts towards it
+                record(Endpoint.LOGIN, scheduled, postStart, ok);
+            }
+            return ok;
+        }
+
+        private void loginWithBadPassword(long scheduled) throws IOException, InterruptedException {
+            // Keep the current session: a failed login must not log the client out
+            Map<String, String> saved = new HashMap<>(cookies);
+            long pageStart = System.nanoTime();
+            HttpResponse<String> page = send(get("/login"), HttpResponse.BodyHandlers.ofString());
+            Matcher csrf = CSRF_INPUT.matcher(page.body());
+            boolean pageOk = page.statusCode() == 200 && csrf.find();
+            record(Endpoint.LOGIN_PAGE, scheduled, pageStart, pageOk);
+            if (!pageOk) {
+                cookies.clear();
+                cookies.putAll(saved);
+                error(Endpoint.LOGIN_BAD);
+                return;
+            }
+
+            // Unknown names, so real accounts never lock; repeated names reach the per-user throttle as well
+            String form = "username=" + encode("unknown-" + index + "-" + random.nextInt(1000))
+                + "&password=wrong-password&_csrf=" + encode(csrf.group(1));
+            long start = System.nanoTime();
+            HttpResponse<Void> response = send(request("/perform-login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)), HttpResponse.BodyHandlers.discarding());
+            record(Endpoint.LOGIN_BAD, scheduled, start, response.statusCode() == 302
+                && response.headers().firstValue("Location").orElse("").contains("error"));
+            cookies.clear();
+            cookies.putAll(saved);
+        }
+
+        private void rememberMeLogin(long scheduled) throws IOException, InterruptedException {
+            // Only the remember-me cookie, as after a browser restart; the rotated token replaces the old one
+            long start = System.nanoTime();
+            HttpResponse<Void> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/user/dashboard"))
+                .header("Cookie", "remember-me=" + rememberMeCookie)
+                .timeout(Duration.ofSeconds(30))
+                .GET(), HttpResponse.BodyHandlers.discarding(), null);
+            for (String header : response.headers().allValues("Set-Cookie")) {
+                if (header.startsWith("remember-me=")) {
+                    String value = header.substring("remember-me=".length()).split(";", 2)[0];
+                    if (!value.isEmpty()) {
+                        rememberMeCookie = value;
+                    }
+                }
+            }
+            record(Endpoint.REMEMBER_ME, scheduled, start, response.statusCode() == 200);
+        }
+
+        private void dashboard(long scheduled) throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = send(get("/user/dashboard"), HttpResponse.BodyHandlers.discarding());
+            boolean ok = response.statusCode() == 200;
+            record(Endpoint.DASHBOARD, scheduled, start, ok);
+            if (!ok) {
+                // Session lost; log back in outside the measurement so later views have one again
+                login(loginUsers.get(random.nextInt(loginUsers.size())), PASSWORD, false, scheduled, false);
+            }
+        }
+
+        private void api(long scheduled) throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/user/data"))
+                .header("Authorization", "Bearer " + accessToken)
+                .timeout(Duration.ofSeconds(30))
+                .GET(), HttpResponse.BodyHandlers.discarding(), null);
+            record(Endpoint.API, scheduled, start, response.statusCode() == 200);
+            if (response.statusCode() == 401) {
+                refreshToken();
+            }
+        }
+
+        private void refreshToken() throws IOException, InterruptedException {
+            String body = new ObjectMapper().writeValueAsString(
+                Map.of("username", rememberMeUser, "password", PASSWORD));
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/token"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body)), HttpResponse.BodyHandlers.ofString(), null);
+            if (response.statusCode() != 200) {
+                throw new IOException("Token request failed with " + response.statusCode());
+            }
+            accessToken = new ObjectMapper().readTree(response.body()).get("accessToken").asText();
+        }
+
+        private HttpRequest.Builder get(String path) {
+            return request(path).GET();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        }
+
+        private <T> HttpResponse<T> send(HttpRequest.Builder builder, HttpResponse.BodyHandler<T> handler)
+                throws IOException, InterruptedException {
+            return send(builder, handler, cookies);
+        }
+
+        // Cookies are tracked by hand so the remember-me and API calls can go out without the session
+        private <T> HttpResponse<T> send(HttpRequest.Builder builder, HttpResponse.BodyHandler<T> handler,
+                                         Map<String, String> jar) throws IOException, InterruptedException {
+            if (jar != null && !jar.isEmpty()) {
+                StringBuilder header = new StringBuilder();
+                jar.forEach((name, value) -> header.append(header.isEmpty() ? "" : "; ")
+                    .append(name).append('=').append(value));
+                builder.header("Cookie", header.toString());
+            }
+            HttpResponse<T> response = client.send(builder.build(), handler);
+            if (jar != null) {
+                for (String setCookie : response.headers().allValues("Set-Cookie")) {
+                    String pair = setCookie.split(";", 2)[0];
+                    int equals = pair.indexOf('=');
+                    String name = pair.substring(0, equals);
+                    String value = pair.substring(equals + 1);
+                    if (value.isEmpty() || setCookie.contains("Max-Age=0")) {
+                        jar.remove(name);
+                    } else {
+                        jar.put(name, value);
+                    }
+                }
+            }
+            return response;
+        }
+
+        private void record(Endpoint endpoint, long scheduled, long start, boolean ok) {
+            if (!measuring) {
+                return;
+            }
+            if (!ok) {
+                error(endpoint);
+                return;
+            }
+            long end = System.nanoTime();
+            Stats endpointStats = stats.get(endpoint);
+            endpointStats.responseMicros.recordValue(
+                Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(end - scheduled)));
+            endpointStats.serviceMicros.recordValue(
+                Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(end - start)));
+        }
+
+        private void error(Endpoint endpoint) {
+            if (measuring) {
+                stats.get(endpoint).errors.incrementAndGet();
+            }
+        }
+
+        private static Endpoint endpointFor(Operation operation) {
+            return switch (operation) {
+                case LOGIN -> Endpoint.LOGIN;
+                case LOGIN_BAD -> Endpoint.LOGIN_BAD;
+                case REMEMBER_ME -> Endpoint.REMEMBER_ME;
+                case DASHBOARD -> Endpoint.DASHBOARD;
+                case API -> Endpoint.API;
+            };
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.security.benchmark;
+
+import com.example.security.authz.UrlDecisionTable;
+import com.example.security.authz.UrlRuleMatcherChain;
+import com.example.security.authz.UrlRules;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Decision table vs. the ordered requestMatchers chain for the same rules
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlAuthorizationBenchmark {
+
+    // First rule, a late rule, a deep path under a prefix rule, and a path no rule matches
+    @Param({"/", "/profile/settings", "/api/admin/users/42/roles", "/unknown/path"})
+    public String path;
+
+    private UrlDecisionTable table;
+    private AuthorizationManager<HttpServletRequest> chain;
+    private HttpServletRequest request;
+    private RequestAuthorizationContext context;
+    private Supplier<Authentication> authentication;
+
+    @Setup
+    public void setUp() {
+        table = UrlDecisionTable.compile(UrlRules.RULES);
+        chain = UrlRuleMatcherChain.build(UrlRules.RULES);
+        request = new MockHttpServletRequest("GET", path);
+        context = new RequestAuthorizationContext(request);
+        Authentication user = UsernamePasswordAuthenticationToken.authenticated("user", null,
+            AuthorityUtils.createAuthorityList("ROLE_USER", "READ_PRIVILEGE"));
+        authentication = () -> user;
+    }
+
+    @Benchmark
+    public boolean decisionTable() {
+        return table.authorize(authentication, context).isGranted();
+    }
+
+    @Benchmark
+    public boolean matcherChain() {
+        return chain.authorize(authentication, request).isGranted();
+    }
+}
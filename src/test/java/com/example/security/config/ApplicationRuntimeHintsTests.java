@@ -0,0 +1,32 @@
+package com.example.security.config;
+
+import com.example.security.model.RoleDefinitionListener;
+import com.example.security.model.User;
+import com.example.security.seed.SeedDefinition;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApplicationRuntimeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    ApplicationRuntimeHintsTests() {
+        new ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void coversReflectionOutsideTheBeanFactory() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("seed/seed.json").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(User.class)
+            .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RoleDefinitionListener.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SeedDefinition.UserSeed.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.serialization().onType(SecurityContextImpl.class).test(hints));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.security.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:userlisting")
+@AutoConfigureMockMvc
+class UserListingApiTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void offsetPagesSortOnlyByListedColumns() throws Exception {
+        mockMvc.perform(get("/api/admin/users").param("sort", "username,desc")
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].username").exists())
+            .andExpect(jsonPath("$.page.totalElements").exists());
+
+        mockMvc.perform(get("/api/admin/users").param("sort", "password")
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void afterSwitchesToKeysetWindows() throws Exception {
+        mockMvc.perform(get("/api/admin/users").param("after", "0").param("size", "1")
+                .with(user("admin").roles("ADMIN")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.nextCursor").isNumber());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.security.observation;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:observation",
+    "app.security.password.bcrypt-strength=4"
+})
+@AutoConfigureMockMvc
+class AuthenticationObservationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loginsAreTimedAndFailuresCountedByType() throws Exception {
+        mockMvc.perform(formLogin("/perform-login").user("user").password("wrong"));
+        mockMvc.perform(formLogin("/perform-login").user("user").password("wrong"));
+        mockMvc.perform(formLogin("/perform-login").user("ghost-user").password("wrong"));
+
+        assertEquals(2, meterRegistry.get("auth.failures").tag("type", "bad_credentials").counter().count());
+        assertEquals(1, meterRegistry.get("auth.failures").tag("type", "user_not_found").counter().count());
+        assertEquals(1, meterRegistry.get("auth.user.lookup").tag("source", "cache").timer().count());
+        // The provider checks a dummy hash for unknown users too, so all three are timed
+        assertEquals(3, meterRegistry.get("auth.password.verify").tag("outcome", "mismatch").timer().count());
+        assertEquals(3, meterRegistry.get("auth.handler.bookkeeping").tag("handler", "failure").timer().count());
+        assertTrue(meterRegistry.get("security.filter").tag("filter", "authentication.form").timer().count() > 0);
+
+        // No meter may carry a username, whatever its name
+        for (Meter meter : meterRegistry.getMeters()) {
+            meter.getId().getTags().forEach(tag -> assertFalse(tag.getValue().contains("ghost-user"), meter.getId()::toString));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.security.observation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.ObservationFilterChainDecorator;
+import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.filter.FormContentFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityFilterProfilerTests {
+
+    private final SecurityFilterProfiler profiler = new SecurityFilterProfiler(1.0);
+
+    @Test
+    void chargesEachFilterItsOwnTimeAndLeavesOutTheServlet() throws Exception {
+        List<Filter> filters = List.of(new CharacterEncodingFilter(), new FormContentFilter());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/dashboard");
+
+        profiler.profile(request, new MockHttpServletResponse(), (req, res) -> sleep(50), filters,
+            new FilterChainProxy.VirtualFilterChainDecorator());
+
+        SecurityFilterProfiler.GroupReport report = profiler.report().get("dashboards");
+        assertEquals(1, report.sampledRequests());
+        assertTrue(report.chainMaxNanos() < TimeUnit.MILLISECONDS.toNanos(50), "servlet time must not count");
+        assertEquals(List.of("CharacterEncodingFilter", "FormContentFilter"),
+            report.filters().stream().map(SecurityFilterProfiler.FilterReport::filter).toList());
+    }
+
+    @Test
+    void sampledRequestsKeepTheFilterChainObservation() throws Exception {
+        List<String> events = new ArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new SecurityFilterProfilerHandler(profiler));
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+
+            @Override
+            public void onEvent(Observation.Event event, Observation.Context context) {
+                events.add(event.getName());
+            }
+        });
+        List<Filter> filters = List.of(new CharacterEncodingFilter(), new FormContentFilter());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/data");
+
+        profiler.profile(request, new MockHttpServletResponse(), (req, res) -> sleep(50), filters,
+            new ObservationFilterChainDecorator(registry));
+
+        assertTrue(events.containsAll(List.of("CharacterEncodingFilter.before", "FormContentFilter.after")), "events");
+        SecurityFilterProfiler.GroupReport report = profiler.report().get("api");
+        assertEquals(1, report.sampledRequests());
+        assertTrue(report.chainMaxNanos() < TimeUnit.MILLISECONDS.toNanos(50), "servlet time must not count");
+        assertEquals(List.of("CharacterEncodingFilter", "FormContentFilter"),
+            report.filters().stream().map(SecurityFilterProfiler.FilterReport::filter).toList());
+    }
+
+    @Test
+    void groupsRequestsByUrl() {
+        assertEquals(SecurityFilterProfiler.UrlGroup.API, SecurityFilterProfiler.group(get("/api/admin/users")));
+        assertEquals(SecurityFilterProfiler.UrlGroup.STATIC, SecurityFilterProfiler.group(get("/css/site.css")));
+        assertEquals(SecurityFilterProfiler.UrlGroup.DASHBOARDS, SecurityFilterProfiler.group(get("/manager/dashboard")));
+        assertEquals(SecurityFilterProfiler.UrlGroup.PUBLIC, SecurityFilterProfiler.group(get("/login")));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MockHttpServletRequest get(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+}
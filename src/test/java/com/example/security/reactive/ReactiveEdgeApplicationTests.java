@@ -0,0 +1,89 @@
+package com.example.security.reactive;
+
+import com.example.security.jwt.JwtKeyRing;
+import com.example.security.jwt.JwtTokenService;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+@SpringBootTest(classes = ReactiveEdgeApplication.class, properties = {
+    "spring.r2dbc.url=r2dbc:h2:mem:///reactive-edge-test",
+    "spring.sql.init.mode=always",
+    "spring.sql.init.schema-locations=classpath:reactive/schema.sql",
+    "spring.sql.init.data-locations=classpath:reactive/data.sql",
+    "app.security.jwt.keys=" + ReactiveEdgeApplicationTests.KEY
+})
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveEdgeApplicationTests {
+
+    static final String KEY = "test:K/WN+1xkJehJw1maT3yF43/BwYjyjRA9THiV48gAq2c=";
+    private static final String OTHER_KEY = "test:W1TeEE8K9AuZ9tGImyICJ5CsehPe2IS0rCdz347I+8k=";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Test
+    void servesRoleBasedApi() {
+        String userToken = token(keyRing, "user", "ROLE_USER");
+        String adminToken = token(keyRing, "admin", "ROLE_ADMIN");
+
+        webTestClient.get().uri("/api/public/info").exchange()
+            .expectStatus().isOk();
+        webTestClient.get().uri("/api/user/data").exchange()
+            .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/user/data").headers(headers -> headers.setBearerAuth("not-a-token")).exchange()
+            .expectStatus().isUnauthorized();
+        // Signed with a key the edge does not hold
+        webTestClient.get().uri("/api/user/data")
+            .headers(headers -> headers.setBearerAuth(token(new JwtKeyRing(List.of(OTHER_KEY)), "user", "ROLE_USER")))
+            .exchange()
+            .expectStatus().isUnauthorized();
+        // Passwords are never accepted here
+        webTestClient.get().uri("/api/user/data").headers(headers -> headers.setBasicAuth("user", "User@123"))
+            .exchange()
+            .expectStatus().isUnauthorized();
+
+        webTestClient.get().uri("/api/user/data").headers(headers -> headers.setBearerAuth(userToken))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.user").isEqualTo("user")
+            .jsonPath("$.roles[*].authority").value(containsInAnyOrder("ROLE_USER", "READ_PRIVILEGE"));
+        webTestClient.get().uri("/api/admin/data").headers(headers -> headers.setBearerAuth(userToken))
+            .exchange()
+            .expectStatus().isForbidden();
+
+        webTestClient.get().uri("/api/admin/users?size=2").headers(headers -> headers.setBearerAuth(adminToken))
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.content.length()").isEqualTo(2)
+            .jsonPath("$.nextCursor").isEqualTo(2);
+    }
+
+    // Issued the same way as the servlet app's POST /api/auth/token
+    private static String token(JwtKeyRing keyRing, String username, String role) {
+        JwtTokenService tokens = new JwtTokenService(
+            new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(keyRing.getSigningKey()))),
+            keyRing.getSigningKey().getKeyID(), "spring-security-demo", Duration.ofMinutes(5));
+        return tokens.issueToken(UsernamePasswordAuthenticationToken.authenticated(username, null,
+            List.of(new SimpleGrantedAuthority(role))));
+    }
+}
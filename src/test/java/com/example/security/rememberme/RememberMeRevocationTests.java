@@ -0,0 +1,101 @@
+package com.example.security.rememberme;
+
+import com.example.security.dto.RememberMeDevice;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:remembermerevocation")
+@AutoConfigureMockMvc
+class RememberMeRevocationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersistentLoginTokenStore tokenStore;
+
+    @Test
+    void logoutSignsOutOnlyTheCurrentDevice() throws Exception {
+        tokenStore.createNewToken(token("logout-user", "laptop"));
+        tokenStore.createNewToken(token("logout-user", "phone"));
+
+        mockMvc.perform(post("/logout")
+                .cookie(rememberMeCookie("laptop"))
+                .with(user("logout-user").roles("USER"))
+                .with(csrf()))
+            .andExpect(status().is3xxRedirection());
+
+        assertNull(tokenStore.getTokenForSeries("laptop"));
+        assertNotNull(tokenStore.getTokenForSeries("phone"));
+    }
+
+    @Test
+    void usersRevokeTheirOwnDevicesOnly() throws Exception {
+        tokenStore.createNewToken(token("device-user", "tablet"));
+        tokenStore.createNewToken(token("other-user", "desktop"));
+        assertEquals(List.of("tablet"), tokenStore.findDevices("device-user").stream()
+            .map(RememberMeDevice::series)
+            .toList());
+
+        mockMvc.perform(delete("/api/account/remember-me/desktop")
+                .with(user("device-user").roles("USER"))
+                .with(csrf()))
+            .andExpect(status().isNotFound());
+        assertNotNull(tokenStore.getTokenForSeries("desktop"));
+
+        mockMvc.perform(delete("/api/account/remember-me/tablet")
+                .with(user("device-user").roles("USER"))
+                .with(csrf()))
+            .andExpect(status().isNoContent());
+        assertNull(tokenStore.getTokenForSeries("tablet"));
+    }
+
+    @Test
+    void adminsRevokeEveryDeviceOfAUser() throws Exception {
+        tokenStore.createNewToken(token("revoked-user", "watch"));
+        tokenStore.createNewToken(token("revoked-user", "tv"));
+
+        // Denied requests are sent to the access-denied page
+
+        mockMvc.perform(delete("/api/admin/users/revoked-user/remember-me")
+                .with(user("manager").roles("MANAGER"))
+                .with(csrf()))
+            .andExpect(status().is3xxRedirection());
+        assertEquals(2, tokenStore.findDevices("revoked-user").size());
+
+        mockMvc.perform(delete("/api/admin/users/revoked-user/remember-me")
+                .with(user("admin").roles("ADMIN"))
+                .with(csrf()))
+            .andExpect(status().isNoContent());
+        assertNull(tokenStore.getTokenForSeries("watch"));
+        assertNull(tokenStore.getTokenForSeries("tv"));
+    }
+
+    private static PersistentRememberMeToken token(String username, String series) {
+        return new PersistentRememberMeToken(username, series, series + "-token", new Date());
+    }
+
+    private static Cookie rememberMeCookie(String series) {
+        String value = series + ":" + series + "-token";
+        return new Cookie("remember-me", Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.security.seed;
+
+import com.example.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:seedtest",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.security.password.bcrypt-strength=4"
+})
+class DataSeederTests {
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void seededUsersLogInWithPrecomputedHashes() {
+        String stored = userRepository.findByUsername("admin").orElseThrow().getPassword();
+
+        assertTrue(stored.startsWith("{bcrypt}$2a$12$"));
+        assertTrue(passwordEncoder.matches("Admin@123", stored));
+    }
+
+    @Test
+    void currentVersionIsSkippedWithOneLookup() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertFalse(dataSeeder.seed());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.security.seed;
+
+import com.example.security.model.User;
+import com.example.security.repository.SeedVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sequencealign")
+class UserIdSequenceAlignerTests {
+
+    @Autowired
+    private UserIdSequenceAligner aligner;
+
+    @Autowired
+    private SeedVersionRepository seedVersionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A row left over from the IDENTITY days, with the sequence freshly created behind it
+    @Test
+    void sequenceIsMovedPastExistingIdsOnce() {
+        assertTrue(seedVersionRepository.existsById(UserIdSequenceAligner.MIGRATION_NAME));
+        seedVersionRepository.deleteById(UserIdSequenceAligner.MIGRATION_NAME);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, enabled, account_non_expired, " +
+            "credentials_non_expired, account_non_locked, failed_login_attempts, created_at) " +
+            "VALUES (5000, 'legacy', 'legacy@example.com', 'x', TRUE, TRUE, TRUE, TRUE, 0, CURRENT_TIMESTAMP)");
+        jdbcTemplate.execute("ALTER SEQUENCE " + User.ID_SEQUENCE + " RESTART WITH 1");
+
+        aligner.align();
+
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + User.ID_SEQUENCE, Long.class);
+        assertTrue(next - User.ID_ALLOCATION_SIZE >= 5000, "next block starts above existing ids: " + next);
+        assertTrue(seedVersionRepository.existsById(UserIdSequenceAligner.MIGRATION_NAME));
+
+        // Recorded as done: later starts do not touch the sequence
+        aligner.align();
+        Long after = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + User.ID_SEQUENCE, Long.class);
+        assertEquals(next + User.ID_ALLOCATION_SIZE, after);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.security.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoginBookkeepingWriterTests {
+
+    @Test
+    void failedWritesAreRetriedThenDroppedAndCounted() {
+        AtomicInteger writes = new AtomicInteger();
+        // Not a DataAccessException, so it used to escape the flush and cancel the schedule
+        JdbcTemplate unavailable = new JdbcTemplate() {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                writes.incrementAndGet();
+                throw new CannotCreateTransactionException("database unavailable");
+            }
+        };
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoginBookkeepingWriter writer = new LoginBookkeepingWriter(unavailable, meterRegistry,
+            ObservationRegistry.NOOP, 20, 500, Duration.ofHours(1), 3, 1, false);
+        try {
+            writer.loginSucceeded("first");
+            writer.loginFailed("second", 2);
+
+            writer.flush();
+            // Only one of the two fits back under max-pending
+            assertEquals(1, meterRegistry.get("login.bookkeeping.dropped").tag("reason", "queue_full").counter().count());
+            assertEquals(1, meterRegistry.get("login.bookkeeping.pending").gauge().value());
+
+            writer.flush();
+            writer.flush();
+            assertEquals(1, meterRegistry.get("login.bookkeeping.dropped").tag("reason", "retries_exhausted")
+                .counter().count());
+            assertEquals(0, meterRegistry.get("login.bookkeeping.pending").gauge().value());
+
+            writer.flush();
+            assertEquals(3, writes.get());
+        } finally {
+            writer.destroy();
+        }
+    }
+}
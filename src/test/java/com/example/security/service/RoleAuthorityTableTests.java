@@ -0,0 +1,99 @@
+package com.example.security.service;
+
+import com.example.security.model.Privilege;
+import com.example.security.model.Role;
+import com.example.security.model.RoleDefinitionsChangedEvent;
+import com.example.security.repository.PrivilegeRepository;
+import com.example.security.repository.RoleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:roleauthorities")
+class RoleAuthorityTableTests {
+
+    @Autowired
+    private RoleAuthorityTable roleAuthorityTable;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PrivilegeRepository privilegeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Only the join table changes, so no entity callback fires for the role itself
+    @Test
+    void privilegeGrantedToExistingRoleIsPickedUp() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> privilegeRepository.save(new Privilege("AUDIT_PRIVILEGE")));
+        assertFalse(names(roleAuthorityTable.authoritiesFor(List.of("ROLE_MANAGER"))).contains("AUDIT_PRIVILEGE"));
+
+        transaction.executeWithoutResult(status -> {
+            Role role = roleRepository.findWithPrivilegesByNameIn(List.of("ROLE_MANAGER")).get(0);
+            role.getPrivileges().add(privilegeRepository.findByName("AUDIT_PRIVILEGE").orElseThrow());
+        });
+        assertTrue(names(roleAuthorityTable.authoritiesFor(List.of("ROLE_MANAGER"))).contains("AUDIT_PRIVILEGE"));
+
+        transaction.executeWithoutResult(status -> {
+            Role role = roleRepository.findWithPrivilegesByNameIn(List.of("ROLE_MANAGER")).get(0);
+            role.getPrivileges().removeIf(privilege -> privilege.getName().equals("AUDIT_PRIVILEGE"));
+        });
+        assertFalse(names(roleAuthorityTable.authoritiesFor(List.of("ROLE_MANAGER"))).contains("AUDIT_PRIVILEGE"));
+    }
+
+    @Test
+    void changeDuringReloadIsNotLostToTheStaleTable() throws Exception {
+        Role before = new Role("ROLE_RACE");
+        Role after = new Role("ROLE_RACE");
+        after.getPrivileges().add(new Privilege("RACE_PRIVILEGE"));
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RoleRepository slowRepository = mock(RoleRepository.class);
+        when(slowRepository.findAllWithPrivileges())
+            .thenAnswer(invocation -> {
+                reading.countDown();
+                release.await();
+                return List.of(before);
+            })
+            .thenReturn(List.of(after));
+        RoleAuthorityTable table = new RoleAuthorityTable(slowRepository,
+            new UserDetailsCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1)));
+
+        Thread reload = Thread.ofPlatform().start(table::reload);
+        reading.await();
+        Thread change = Thread.ofPlatform().start(() ->
+            table.onRoleDefinitionsChanged(new RoleDefinitionsChangedEvent("Role", 1L)));
+        // Let the change reach the table before the old definitions are published
+        while (change.isAlive() && change.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        reload.join();
+        change.join();
+
+        assertTrue(names(table.authoritiesFor(List.of("ROLE_RACE"))).contains("RACE_PRIVILEGE"));
+    }
+
+    private static List<String> names(Iterable<? extends GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>();
+        authorities.forEach(authority -> names.add(authority.getAuthority()));
+        return names;
+    }
+}
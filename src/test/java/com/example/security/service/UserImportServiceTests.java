@@ -0,0 +1,110 @@
+package com.example.security.service;
+
+import com.example.security.dto.UserImportResult;
+import com.example.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:userimport",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.security.password.bcrypt-strength=4",
+    "app.security.user-import.chunk-size=100"
+})
+class UserImportServiceTests {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reportsRowErrorsAndImportsTheRest() {
+        String csv = """
+            username,email,password,firstName,lastName
+            alice,alice@example.com,Password@1,Alice,Example
+            admin,new-admin@example.com,Password@1,Taken,Name
+            bob,admin@example.com,Password@1,Bob,Example
+            alice,alice2@example.com,Password@1,Alice,Again
+            "carol, jr",carol@example.com,short,Carol,Example
+            dave,not-an-email,Password@1,Dave,Example
+            "erin,erin@example.com,Password@1,Erin,Example
+            """;
+
+        UserImportResult result = userImportService.importUsers(csv(csv));
+
+        assertEquals(7, result.rowsRead());
+        assertEquals(1, result.imported());
+        assertEquals(6, result.rejected());
+        assertEquals(List.of(
+                new UserImportResult.RowError(3, "admin", "Username already exists"),
+                new UserImportResult.RowError(4, "bob", "Email already exists"),
+                new UserImportResult.RowError(5, "alice", "Duplicate username in import"),
+                new UserImportResult.RowError(6, "carol, jr", "Password must be at least 8 characters"),
+                new UserImportResult.RowError(7, "dave", "Please provide a valid email address"),
+                new UserImportResult.RowError(8, null, "Unterminated quoted field")),
+            result.errors());
+        assertTrue(userRepository.existsByUsername("alice"));
+    }
+
+    // A registration that lands between the duplicate check and the insert is only caught by the unique key
+    @Test
+    void duplicatesFoundAtFlushAreRejectedRowByRow() {
+        doReturn(List.of()).when(userRepository).findExistingUsernames(any());
+        String csv = """
+            username,email,password,firstName,lastName
+            frank,frank@example.com,Password@1,Frank,Example
+            manager,second-manager@example.com,Password@1,Taken,Name
+            """;
+
+        UserImportResult result = userImportService.importUsers(csv(csv));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new UserImportResult.RowError(3, "manager", "Username or email already exists")),
+            result.errors());
+        assertTrue(userRepository.existsByUsername("frank"));
+    }
+
+    @Test
+    void insertsAreBatched() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            ndjson.append("{\"username\":\"batch").append(i).append("\",\"email\":\"batch").append(i)
+                .append("@example.com\",\"password\":\"Password@1\",\"firstName\":\"Batch\",\"lastName\":\"User\"}\n");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        UserImportResult result = userImportService.importUsers(new UserImportReader(
+            new BufferedReader(new StringReader(ndjson.toString())), UserImportReader.Format.JSON_LINES));
+
+        assertEquals(250, result.imported());
+        assertEquals(250, statistics.getEntityInsertCount());
+        // Per chunk of 100: two duplicate checks, the default role, and one batched insert each for users and
+        // user_roles; plus the initial role lookup and a sequence call per 50 ids
+        assertTrue(statistics.getPrepareStatementCount() <= 3 * 5 + 1 + 5,
+            "statements=" + statistics.getPrepareStatementCount());
+    }
+
+    private static UserImportReader csv(String text) {
+        return new UserImportReader(new BufferedReader(new StringReader(text)), UserImportReader.Format.CSV);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.security.service;
+
+import com.example.security.dto.UserRegistrationDto;
+import com.example.security.dto.UserSearchCriteria;
+import com.example.security.model.Role;
+import com.example.security.model.User;
+import com.example.security.repository.RoleRepository;
+import com.example.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:querycount",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.security.password.bcrypt-strength=4"
+})
+class UserServiceQueryCountTests {
+
+    private static final List<String> SEEDED_USERNAMES = List.of("admin", "manager", "user");
+    private static final String REGISTERED_USERNAME = "querycount";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private final Map<String, AccountState> seededAccounts = new HashMap<>();
+
+    // The tests change the seeded accounts through the service, which commits, so they are put back after each one
+    @BeforeEach
+    void setUp() {
+        for (String username : SEEDED_USERNAMES) {
+            User user = userRepository.findByUsernameWithRoles(username).orElseThrow();
+            seededAccounts.put(username, new AccountState(user.getPassword(), user.isEnabled(),
+                user.isAccountNonLocked(), user.getRoles().stream().map(Role::getName).collect(Collectors.toSet())));
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void restoreSeededAccounts() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            seededAccounts.forEach((username, state) -> {
+                User user = userRepository.findByUsernameWithRoles(username).orElseThrow();
+                user.setPassword(state.password());
+                user.setEnabled(state.enabled());
+                user.setAccountNonLocked(state.accountNonLocked());
+                user.getRoles().removeIf(role -> !state.roles().contains(role.getName()));
+                state.roles().forEach(roleName ->
+                    user.getRoles().add(roleRepository.findByName(roleName).orElseThrow()));
+            });
+            userRepository.findByUsername(REGISTERED_USERNAME).ifPresent(userRepository::delete);
+        });
+        userDetailsCache.evictAll();
+    }
+
+    @Test
+    void loadUserByUsernameFetchesRolesInOneStatement() {
+        userDetailsCache.evict("admin");
+        statistics.clear();
+
+        userDetailsService.loadUserByUsername("admin");
+
+        assertStatements(1);
+    }
+
+    @Test
+    void loadUserByUsernameIsServedFromCache() {
+        userDetailsService.loadUserByUsername("manager");
+        statistics.clear();
+
+        userDetailsService.loadUserByUsername("manager");
+
+        assertStatements(0);
+    }
+
+    @Test
+    void findByUsernameDoesNotLoadRoles() {
+        userService.findByUsername("user");
+
+        assertStatements(1);
+    }
+
+    @Test
+    void existsByUsernameIsOneStatement() {
+        userRepository.existsByUsername("user");
+
+        assertStatements(1);
+    }
+
+    @Test
+    void accountStateChangesAreOneStatementEach() {
+        userService.lockAccount("user");
+        assertStatements(1);
+
+        statistics.clear();
+        userService.unlockAccount("user");
+        assertStatements(1);
+
+        statistics.clear();
+        userService.disableAccount("user");
+        assertStatements(1);
+
+        statistics.clear();
+        userService.enableAccount("user");
+        assertStatements(1);
+    }
+
+    @Test
+    void bulkAccountStateChangeIsOneStatement() {
+        userService.lockAccounts(List.of("user", "manager"));
+        assertStatements(1);
+
+        statistics.clear();
+        userService.unlockAccounts(List.of("user", "manager"));
+        assertStatements(1);
+    }
+
+    @Test
+    void updatePasswordIsOneStatement() {
+        userService.updatePassword("manager", "Manager@123");
+
+        assertStatements(1);
+    }
+
+    @Test
+    void pagedListingIsSelectPlusCount() {
+        userService.findUsers(UserSearchCriteria.any(), PageRequest.of(0, 2));
+
+        assertStatements(2);
+    }
+
+    @Test
+    void keysetListingIsOneStatement() {
+        userService.findUsersAfter(UserSearchCriteria.any(), 1L, 2);
+
+        assertStatements(1);
+    }
+
+    @Test
+    void registerNewUser() {
+        UserRegistrationDto dto = new UserRegistrationDto();
+        dto.setUsername(REGISTERED_USERNAME);
+        dto.setEmail("querycount@example.com");
+        dto.setPassword("Password@123");
+        dto.setFirstName("Query");
+        dto.setLastName("Count");
+
+        userService.registerNewUser(dto);
+
+        // two exists checks, the default role, the user insert and its user_roles row
+        assertStatements(5);
+    }
+
+    @Test
+    void addAndRemoveRole() {
+        userService.addRoleToUser("manager", "ROLE_USER");
+
+        // user, role, the lazy roles collection and the user_roles insert
+        assertStatements(4);
+
+        statistics.clear();
+        userService.removeRoleFromUser("manager", "ROLE_USER");
+        assertStatements(4);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements executed");
+    }
+
+    private record AccountState(String password, boolean enabled, boolean accountNonLocked, Set<String> roles) {}
+}
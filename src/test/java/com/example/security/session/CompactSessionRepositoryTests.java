@@ -0,0 +1,156 @@
+package com.example.security.session;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.session.FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
+
+class CompactSessionRepositoryTests {
+
+    private static final String CONTEXT_KEY = HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY;
+
+    private EmbeddedDatabase database;
+    private CompactSessionRepository node1;
+    private CompactSessionRepository node2;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("classpath:session/schema-h2.sql")
+            .build();
+        node1 = newRepository();
+        node2 = newRepository();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void securityContextSurvivesRoundTrip() {
+        CompactSession session = node1.createSession();
+        session.setAttribute(CONTEXT_KEY, securityContext("admin", "ROLE_ADMIN", "READ_PRIVILEGE"));
+        session.setAttribute("username", "admin");
+        node1.save(session);
+
+        CompactSession loaded = node2.findById(session.getId());
+
+        assertNotNull(loaded);
+        SecurityContext context = loaded.getAttribute(CONTEXT_KEY);
+        assertEquals("admin", context.getAuthentication().getName());
+        assertTrue(context.getAuthentication().isAuthenticated());
+        assertEquals(AuthorityUtils.createAuthorityList("READ_PRIVILEGE", "ROLE_ADMIN"),
+            context.getAuthentication().getAuthorities().stream().toList());
+        assertEquals(new WebAuthenticationDetails("127.0.0.1", "abc"), context.getAuthentication().getDetails());
+        assertEquals("admin", loaded.getAttribute("username"));
+    }
+
+    @Test
+    void securityContextIsSmallerThanJavaSerialization() {
+        SecurityContext context = securityContext("admin", "ROLE_ADMIN", "READ_PRIVILEGE", "WRITE_PRIVILEGE");
+        SessionAttributeCodec codec = new SessionAttributeCodec(SimpleGrantedAuthority::new);
+
+        int compact = codec.encode(Map.of(CONTEXT_KEY, context)).length;
+        int serialized = new SerializingConverter().convert(context).length;
+
+        assertTrue(compact * 5 < serialized, "compact=" + compact + " serialized=" + serialized);
+    }
+
+    @Test
+    void nearCacheSeesChangesFromOtherNodes() {
+        CompactSession session = node1.createSession();
+        session.setAttribute("theme", "light");
+        node1.save(session);
+        assertEquals("light", node1.findById(session.getId()).getAttribute("theme"));
+
+        CompactSession other = node2.findById(session.getId());
+        other.setAttribute("theme", "dark");
+        node2.save(other);
+
+        assertEquals("dark", node1.findById(session.getId()).getAttribute("theme"));
+    }
+
+    @Test
+    void concurrentSavesMergeChangedAttributes() {
+        CompactSession session = node1.createSession();
+        node1.save(session);
+
+        CompactSession first = node1.findById(session.getId());
+        CompactSession second = node2.findById(session.getId());
+        first.setAttribute("a", 1);
+        second.setAttribute("b", 2);
+        node1.save(first);
+        node2.save(second);
+
+        CompactSession merged = node1.findById(session.getId());
+        assertEquals(1, (Integer) merged.getAttribute("a"));
+        assertEquals(2, (Integer) merged.getAttribute("b"));
+    }
+
+    @Test
+    void findsSessionsByPrincipalName() {
+        for (int i = 0; i < 2; i++) {
+            CompactSession session = node1.createSession();
+            session.setAttribute(CONTEXT_KEY, securityContext("user", "ROLE_USER"));
+            node1.save(session);
+        }
+        CompactSession anonymous = node1.createSession();
+        node1.save(anonymous);
+
+        assertEquals(2, node2.findByIndexNameAndIndexValue(PRINCIPAL_NAME_INDEX_NAME, "user").size());
+    }
+
+    @Test
+    void expiredSessionsArePurged() {
+        CompactSession session = node1.createSession();
+        session.setMaxInactiveInterval(Duration.ofSeconds(1));
+        session.setLastAccessedTime(Instant.now().minusSeconds(5));
+        node1.save(session);
+
+        node1.purgeExpiredSessions();
+
+        assertNull(node2.findById(session.getId()));
+        assertEquals(0, new JdbcTemplate(database).queryForObject("SELECT COUNT(*) FROM http_sessions", Integer.class));
+    }
+
+    private CompactSessionRepository newRepository() {
+        return new CompactSessionRepository(new JdbcTemplate(database),
+            new SessionAttributeCodec(SimpleGrantedAuthority::new), new SimpleMeterRegistry(),
+            100, Duration.ofMinutes(30), Duration.ofSeconds(10), 100);
+    }
+
+    private static SecurityContext securityContext(String username, String... authorities) {
+        User user = new User(username, "secret", AuthorityUtils.createAuthorityList(authorities));
+        user.eraseCredentials();
+        UsernamePasswordAuthenticationToken authentication =
+            UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetails("127.0.0.1", "abc"));
+        return new SecurityContextImpl(authentication);
+    }
+}
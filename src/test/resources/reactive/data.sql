@@ -0,0 +1,14 @@
+-- BCrypt cost 4 hashes of User@123 and Admin@123; the admin hash carries the delegating {bcrypt} prefix
+INSERT INTO privileges (id, name) VALUES (1, 'READ_PRIVILEGE'), (2, 'WRITE_PRIVILEGE');
+INSERT INTO roles (id, name) VALUES (1, 'ROLE_USER'), (2, 'ROLE_ADMIN');
+INSERT INTO role_privileges (role_id, privilege_id) VALUES (1, 1), (2, 1), (2, 2);
+
+INSERT INTO users (id, username, email, password, enabled, account_non_expired, credentials_non_expired,
+                   account_non_locked, created_at)
+VALUES (1, 'user', 'user@example.com', '$2a$04$KYApJsJR0eNbj.Wf6T/GoOEy8YoUW5ZHFtjvtegDd4E2tF1PtC8Gu',
+        TRUE, TRUE, TRUE, TRUE, CURRENT_TIMESTAMP),
+       (2, 'admin', 'admin@example.com', '{bcrypt}$2a$04$c28OP0teprjoUbQMz4ICxuzGWyXVX4e5DcnPRzVBiDJp47Uu9U1AO',
+        TRUE, TRUE, TRUE, TRUE, CURRENT_TIMESTAMP),
+       (3, 'disabled', 'disabled@example.com', '$2a$04$KYApJsJR0eNbj.Wf6T/GoOEy8YoUW5ZHFtjvtegDd4E2tF1PtC8Gu',
+        FALSE, TRUE, TRUE, TRUE, CURRENT_TIMESTAMP);
+INSERT INTO user_roles (user_id, role_id) VALUES (1, 1), (2, 2), (3, 1);